@@ -0,0 +1,405 @@
+package com.languagelearning.build;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Build sırasında (process-classes fazı) target/classes/static üzerinde çalışır:
+ * JS/CSS dosyalarını küçültür, içerik hash'li isimlerle static/assets altına yazar,
+ * .gz varyantlarını üretir ve index.html içindeki referansları hash'li isimlere çevirir.
+ *
+ * Uygulama jar'ına girmez; Maven tek dosyalık kaynak olarak çalıştırır:
+ * java src/build/java/com/languagelearning/build/AssetPipeline.java &lt;static-dizini&gt;
+ */
+public final class AssetPipeline {
+
+    static final String ASSETS_DIR = "assets";
+    private static final int HASH_LENGTH = 10;
+    private static final int MIN_COMPRESS_SIZE = 512;
+
+    private AssetPipeline() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Kullanım: AssetPipeline <static-dizini>");
+        }
+        Path staticDir = Paths.get(args[0]);
+        if (!Files.isDirectory(staticDir)) {
+            System.out.println("Static dizini bulunamadı, asset pipeline atlandı: " + staticDir);
+            return;
+        }
+        run(staticDir);
+    }
+
+    static void run(Path staticDir) throws IOException {
+        Path assetsDir = staticDir.resolve(ASSETS_DIR);
+        deleteRecursively(assetsDir);
+
+        // Orijinal yol (static'e göre) -> hash'li yol
+        Map<String, String> manifest = new LinkedHashMap<>();
+        for (Path source : listAssets(staticDir)) {
+            String relative = staticDir.relativize(source).toString().replace('\\', '/');
+            String content = Files.readString(source, StandardCharsets.UTF_8);
+            String minified = relative.endsWith(".css") ? minifyCss(content) : minifyJs(content);
+            byte[] bytes = minified.getBytes(StandardCharsets.UTF_8);
+
+            String hashed = hashedName(relative, bytes);
+            Path target = assetsDir.resolve(hashed);
+            Files.createDirectories(target.getParent());
+            Files.write(target, bytes);
+            writeGzip(target, bytes);
+
+            manifest.put(relative, ASSETS_DIR + "/" + hashed);
+            System.out.printf("Asset: %s (%d B) -> %s/%s (%d B)%n",
+                    relative, Files.size(source), ASSETS_DIR, hashed, bytes.length);
+        }
+
+        Path index = staticDir.resolve("index.html");
+        if (Files.exists(index)) {
+            String html = rewriteReferences(Files.readString(index, StandardCharsets.UTF_8), manifest);
+            byte[] bytes = html.getBytes(StandardCharsets.UTF_8);
+            Files.write(index, bytes);
+            writeGzip(index, bytes);
+        }
+    }
+
+    private static List<Path> listAssets(Path staticDir) throws IOException {
+        Path assetsDir = staticDir.resolve(ASSETS_DIR);
+        try (Stream<Path> files = Files.walk(staticDir)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(p -> !p.startsWith(assetsDir))
+                    .filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.endsWith(".js") || name.endsWith(".css");
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    // css/style.css -> css/style.0123456789.css
+    static String hashedName(String relative, byte[] content) {
+        int dot = relative.lastIndexOf('.');
+        return relative.substring(0, dot) + "." + contentHash(content) + relative.substring(dot);
+    }
+
+    static String contentHash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return HexFormat.of().formatHex(digest).substring(0, HASH_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Hem orijinal hem de önceki build'den kalmış hash'li referansları günceller (artımlı build)
+    static String rewriteReferences(String html, Map<String, String> manifest) {
+        for (Map.Entry<String, String> entry : manifest.entrySet()) {
+            String relative = entry.getKey();
+            int dot = relative.lastIndexOf('.');
+            Pattern reference = Pattern.compile("(?<=[\"'])(?:\\./)?(?:" + ASSETS_DIR + "/)?"
+                    + Pattern.quote(relative.substring(0, dot))
+                    + "(?:\\.[0-9a-f]{" + HASH_LENGTH + "})?"
+                    + Pattern.quote(relative.substring(dot))
+                    + "(?=[\"'?#])");
+            html = reference.matcher(html).replaceAll(Matcher.quoteReplacement(entry.getValue()));
+        }
+        return html;
+    }
+
+    private static void writeGzip(Path file, byte[] bytes) throws IOException {
+        Path gz = file.resolveSibling(file.getFileName() + ".gz");
+        if (bytes.length < MIN_COMPRESS_SIZE) {
+            Files.deleteIfExists(gz);
+            return;
+        }
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gz)) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(bytes);
+        }
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path p : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(p);
+            }
+        }
+    }
+
+    // Yorumları siler, boşlukları daraltır; string ve url() içeriklerine dokunmaz
+    static String minifyCss(String css) {
+        StringBuilder out = new StringBuilder(css.length());
+        int n = css.length();
+        int i = 0;
+        int depth = 0;
+        boolean pendingSpace = false;
+        while (i < n) {
+            char c = css.charAt(i);
+            if (c == '/' && i + 1 < n && css.charAt(i + 1) == '*') {
+                int end = css.indexOf("*/", i + 2);
+                i = end < 0 ? n : end + 2;
+                continue;
+            }
+            if (c == '"' || c == '\'') {
+                int end = skipString(css, i, c);
+                flushSpace(out, pendingSpace);
+                pendingSpace = false;
+                out.append(css, i, end);
+                i = end;
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                // Deklarasyon içinde "color: red" -> "color:red"; seçicilerde (a :hover) boşluk korunur
+                pendingSpace = out.length() > 0 && !(depth > 0 && out.charAt(out.length() - 1) == ':');
+                i++;
+                continue;
+            }
+            if ("{};,>".indexOf(c) >= 0) {
+                if (c == '{') {
+                    depth++;
+                } else if (c == '}') {
+                    depth--;
+                }
+                if (c == '}' && out.length() > 0 && out.charAt(out.length() - 1) == ';') {
+                    out.setLength(out.length() - 1);
+                }
+                pendingSpace = false;
+                out.append(c);
+                i++;
+                continue;
+            }
+            if (pendingSpace && "{};,>".indexOf(out.charAt(out.length() - 1)) < 0) {
+                out.append(' ');
+            }
+            pendingSpace = false;
+            out.append(c);
+            i++;
+        }
+        return out.toString();
+    }
+
+    private static void flushSpace(StringBuilder out, boolean pendingSpace) {
+        if (pendingSpace && "{};,>".indexOf(out.charAt(out.length() - 1)) < 0) {
+            out.append(' ');
+        }
+    }
+
+    /**
+     * Güvenli (ASI bozmayan) JS küçültme: yorumları, satır başı girintilerini ve boş
+     * satırları siler. Satır sonları korunur; string, template literal ve regex
+     * içerikleri olduğu gibi kopyalanır.
+     */
+    static String minifyJs(String js) {
+        StringBuilder out = new StringBuilder(js.length());
+        Deque<Integer> templateBraces = new ArrayDeque<>();
+        int braceDepth = 0;
+        int n = js.length();
+        int i = 0;
+        boolean lineStart = true;
+
+        while (i < n) {
+            char c = js.charAt(i);
+
+            if (c == '\n' || c == '\r') {
+                trimTrailing(out);
+                if (out.length() > 0 && out.charAt(out.length() - 1) != '\n') {
+                    out.append('\n');
+                }
+                lineStart = true;
+                i++;
+                continue;
+            }
+            if (c == ' ' || c == '\t') {
+                if (!lineStart) {
+                    out.append(c);
+                }
+                i++;
+                continue;
+            }
+            if (c == '/' && i + 1 < n && js.charAt(i + 1) == '/') {
+                while (i < n && js.charAt(i) != '\n') {
+                    i++;
+                }
+                continue;
+            }
+            if (c == '/' && i + 1 < n && js.charAt(i + 1) == '*') {
+                int end = js.indexOf("*/", i + 2);
+                String comment = js.substring(i, end < 0 ? n : end + 2);
+                i = end < 0 ? n : end + 2;
+                // Çok satırlı yorum satır sonu yerine geçer (ASI için), tek satırlı yorum
+                // boşluk yerine: a/**/b -> "a b" (yorum yutulsa "ab" olurdu)
+                if (comment.indexOf('\n') >= 0 && !lineStart) {
+                    out.append('\n');
+                    lineStart = true;
+                } else if (!lineStart) {
+                    out.append(' ');
+                }
+                continue;
+            }
+
+            lineStart = false;
+
+            if (c == '"' || c == '\'') {
+                int end = skipString(js, i, c);
+                out.append(js, i, end);
+                i = end;
+                continue;
+            }
+            if (c == '`') {
+                i = copyTemplate(js, i + 1, out.append('`'), templateBraces, braceDepth);
+                continue;
+            }
+            if (c == '/' && regexAllowed(out)) {
+                int end = skipRegex(js, i);
+                out.append(js, i, end);
+                i = end;
+                continue;
+            }
+            if (c == '{') {
+                braceDepth++;
+            } else if (c == '}') {
+                if (!templateBraces.isEmpty() && templateBraces.peek() == braceDepth) {
+                    // ${ ... } ifadesi bitti, template literal'a geri dön
+                    templateBraces.pop();
+                    out.append('}');
+                    i = copyTemplate(js, i + 1, out, templateBraces, braceDepth);
+                    continue;
+                }
+                braceDepth--;
+            }
+            out.append(c);
+            i++;
+        }
+        trimTrailing(out);
+        return out.append('\n').toString();
+    }
+
+    // Template literal'ı kapanış ` veya ${ görülene kadar aynen kopyalar
+    private static int copyTemplate(String js, int i, StringBuilder out, Deque<Integer> templateBraces, int braceDepth) {
+        int n = js.length();
+        while (i < n) {
+            char c = js.charAt(i);
+            if (c == '\\' && i + 1 < n) {
+                out.append(c).append(js.charAt(i + 1));
+                i += 2;
+                continue;
+            }
+            if (c == '`') {
+                out.append(c);
+                return i + 1;
+            }
+            if (c == '$' && i + 1 < n && js.charAt(i + 1) == '{') {
+                out.append("${");
+                templateBraces.push(braceDepth);
+                return i + 2;
+            }
+            out.append(c);
+            i++;
+        }
+        return n;
+    }
+
+    private static int skipString(String s, int start, char quote) {
+        int i = start + 1;
+        int n = s.length();
+        while (i < n) {
+            char c = s.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            i++;
+            if (c == quote || c == '\n') {
+                break;
+            }
+        }
+        return Math.min(i, n);
+    }
+
+    private static int skipRegex(String js, int start) {
+        int i = start + 1;
+        int n = js.length();
+        boolean inClass = false;
+        while (i < n) {
+            char c = js.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == '\n') {
+                break;
+            }
+            i++;
+            if (c == '[') {
+                inClass = true;
+            } else if (c == ']') {
+                inClass = false;
+            } else if (c == '/' && !inClass) {
+                break;
+            }
+        }
+        while (i < n && Character.isLetter(js.charAt(i))) {
+            i++;
+        }
+        return Math.min(i, n);
+    }
+
+    private static final List<String> REGEX_KEYWORDS = List.of("return", "typeof", "case", "do", "else", "in", "of");
+
+    // Önceki anlamlı karaktere göre '/' bölme mi regex mi karar verir
+    private static boolean regexAllowed(StringBuilder out) {
+        int i = out.length() - 1;
+        while (i >= 0 && Character.isWhitespace(out.charAt(i))) {
+            i--;
+        }
+        if (i < 0) {
+            return true;
+        }
+        char prev = out.charAt(i);
+        if ("(,=:[!&|?{};+-*%<>~^".indexOf(prev) >= 0) {
+            return true;
+        }
+        if (Character.isLetter(prev)) {
+            int end = i + 1;
+            while (i >= 0 && Character.isLetter(out.charAt(i))) {
+                i--;
+            }
+            return REGEX_KEYWORDS.contains(out.substring(i + 1, end));
+        }
+        return false;
+    }
+
+    private static void trimTrailing(StringBuilder out) {
+        int len = out.length();
+        while (len > 0 && (out.charAt(len - 1) == ' ' || out.charAt(len - 1) == '\t')) {
+            len--;
+        }
+        out.setLength(len);
+    }
+}
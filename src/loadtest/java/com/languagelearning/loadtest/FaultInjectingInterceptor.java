@@ -0,0 +1,137 @@
+package com.languagelearning.loadtest;
+
+import io.grpc.*;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Uygulama ile Firestore emülatörü arasındaki gRPC kanalına takılır: her RPC'yi sayar,
+ * cevabı yapılandırılan süre kadar geciktirir ve belirli bir olasılıkla RPC'yi
+ * sunucuya hiç göndermeden UNAVAILABLE ile düşürür.
+ *
+ * RPC'ler, isteği işleyen thread'de {@link #CURRENT_OP} ile işaretlenmiş işleme yazılır;
+ * istek dışında (arka plan yenilemeleri, SDK retry'ları) açılanlar "background" sayılır.
+ */
+public final class FaultInjectingInterceptor implements ClientInterceptor {
+
+    public static final String BACKGROUND = "background";
+
+    static final ThreadLocal<String> CURRENT_OP = new ThreadLocal<>();
+
+    private final long latencyMs;
+    private final long jitterMs;
+    private final double failureRate;
+
+    private final Map<String, LongAdder> rpcsByOp = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> rpcsByMethod = new ConcurrentHashMap<>();
+    private final LongAdder injectedFailures = new LongAdder();
+    // Seed yazımları hatasız ve gecikmesiz yapılsın diye enjeksiyon sonradan açılır
+    private volatile boolean faultsEnabled;
+
+    // Geciken cevaplar birbirini beklemesin diye birkaç thread
+    private final ScheduledExecutorService delayer = Executors.newScheduledThreadPool(4, r -> {
+        Thread t = new Thread(r, "firestore-fault-injector");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public FaultInjectingInterceptor(long latencyMs, long jitterMs, double failureRate) {
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        this.failureRate = failureRate;
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+                                                               CallOptions callOptions, Channel next) {
+        String op = CURRENT_OP.get();
+        rpcsByOp.computeIfAbsent(op != null ? op : BACKGROUND, k -> new LongAdder()).increment();
+        rpcsByMethod.computeIfAbsent(method.getBareMethodName(), k -> new LongAdder()).increment();
+
+        ClientCall<ReqT, RespT> call = next.newCall(method, callOptions);
+        if (!faultsEnabled) {
+            return call;
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (failureRate > 0 && random.nextDouble() < failureRate) {
+            injectedFailures.increment();
+            return new FailingCall<>();
+        }
+
+        long delay = latencyMs + (jitterMs > 0 ? random.nextLong(jitterMs) : 0);
+        if (delay <= 0) {
+            return call;
+        }
+        // Unary ve streaming çağrılar onClose ile tamamlanır; onu geciktirmek RPC süresini uzatır
+        return new ForwardingClientCall.SimpleForwardingClientCall<>(call) {
+            @Override
+            public void start(Listener<RespT> responseListener, Metadata headers) {
+                super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<>(responseListener) {
+                    @Override
+                    public void onClose(Status status, Metadata trailers) {
+                        delayer.schedule(() -> delegate().onClose(status, trailers), delay, TimeUnit.MILLISECONDS);
+                    }
+                }, headers);
+            }
+        };
+    }
+
+    public void enableFaults() {
+        faultsEnabled = true;
+    }
+
+    public Map<String, Long> rpcsByOp() {
+        return snapshot(rpcsByOp);
+    }
+
+    public Map<String, Long> rpcsByMethod() {
+        return snapshot(rpcsByMethod);
+    }
+
+    public long injectedFailures() {
+        return injectedFailures.sum();
+    }
+
+    // Isınma bittikten sonra sayaçları sıfırla
+    public void reset() {
+        rpcsByOp.clear();
+        rpcsByMethod.clear();
+        injectedFailures.reset();
+    }
+
+    private static Map<String, Long> snapshot(Map<String, LongAdder> counters) {
+        Map<String, Long> result = new TreeMap<>();
+        counters.forEach((key, counter) -> result.put(key, counter.sum()));
+        return result;
+    }
+
+    // Sunucuya gitmeden başarısız olan çağrı; callback gRPC'nin beklediği gibi ayrı thread'den gelir
+    private final class FailingCall<ReqT, RespT> extends ClientCall<ReqT, RespT> {
+
+        @Override
+        public void start(Listener<RespT> responseListener, Metadata headers) {
+            delayer.execute(() -> responseListener.onClose(
+                    Status.UNAVAILABLE.withDescription("loadtest: injected failure"), new Metadata()));
+        }
+
+        @Override
+        public void request(int numMessages) {
+        }
+
+        @Override
+        public void cancel(String message, Throwable cause) {
+        }
+
+        @Override
+        public void halfClose() {
+        }
+
+        @Override
+        public void sendMessage(ReqT message) {
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.languagelearning.loadtest;
+
+import com.google.api.gax.grpc.InstantiatingGrpcChannelProvider;
+import com.google.auth.Credentials;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.FirestoreOptions;
+import io.grpc.ManagedChannelBuilder;
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Uygulamanın Firestore bean'ini emülatöre bağlı, hata/gecikme enjekte eden bir
+ * istemciyle değiştirir (@Primary; FirebaseConfig'teki lazy bean hiç oluşturulmaz).
+ */
+@Configuration
+public class LoadTestConfig {
+
+    // Harness her isteğe işlem adını bu header ile koyar; RPC'ler bu işleme yazılır
+    static final String OP_HEADER = "X-Loadtest-Op";
+
+    @Bean
+    public LoadTestSettings loadTestSettings() {
+        return LoadTestSettings.fromSystemProperties();
+    }
+
+    @Bean
+    public FaultInjectingInterceptor faultInjectingInterceptor(LoadTestSettings settings) {
+        return new FaultInjectingInterceptor(settings.latencyMs(), settings.jitterMs(), settings.failureRate());
+    }
+
+    // FirestoreOptions.setEmulatorHost kendi kanalını kurar ve interceptor'ları atlar;
+    // bu yüzden plaintext kanal ve emülatör kimliği burada elle veriliyor
+    @Bean
+    @Primary
+    public Firestore loadTestFirestore(LoadTestSettings settings, FaultInjectingInterceptor interceptor) {
+        InstantiatingGrpcChannelProvider channelProvider = InstantiatingGrpcChannelProvider.newBuilder()
+                .setEndpoint(settings.firestoreHost())
+                .setChannelConfigurator(ManagedChannelBuilder::usePlaintext)
+                .setInterceptorProvider(() -> List.of(interceptor))
+                .build();
+
+        return FirestoreOptions.newBuilder()
+                .setProjectId(settings.projectId())
+                .setCredentials(new EmulatorCredentials())
+                .setChannelProvider(channelProvider)
+                .build()
+                .getService();
+    }
+
+    @Bean
+    public Filter loadTestOperationFilter() {
+        return (request, response, chain) -> {
+            FaultInjectingInterceptor.CURRENT_OP.set(((HttpServletRequest) request).getHeader(OP_HEADER));
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                FaultInjectingInterceptor.CURRENT_OP.remove();
+            }
+        };
+    }
+
+    // Emülatör "Bearer owner" token'ını tam yetkili kabul eder
+    static final class EmulatorCredentials extends Credentials {
+
+        @Override
+        public String getAuthenticationType() {
+            return "Bearer";
+        }
+
+        @Override
+        public Map<String, List<String>> getRequestMetadata(URI uri) {
+            return Map.of("Authorization", List.of("Bearer owner"));
+        }
+
+        @Override
+        public boolean hasRequestMetadata() {
+            return true;
+        }
+
+        @Override
+        public boolean hasRequestMetadataOnly() {
+            return true;
+        }
+
+        @Override
+        public void refresh() {
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.languagelearning.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Ölçüm sonucunu iki dosyaya yazar:
+ * report.txt  - işlem başına p50/p95/p99/max, throughput ve istek başına RPC; sabit
+ *               biçimli olduğu için iki build'in raporu doğrudan diff'lenebilir
+ * latency.hlog - işlem adıyla etiketlenmiş ham HdrHistogram'lar (HistogramLogProcessor,
+ *               HdrHistogram Log Analyzer vb. ile karşılaştırma için)
+ */
+final class LoadTestReport {
+
+    private static final String ROW = "%-12s %9s %7s %9s %9s %9s %9s %9s %8s%n";
+
+    private LoadTestReport() {
+    }
+
+    static String render(LoadTestSettings settings, OpenWorkload.Result result, FaultInjectingInterceptor rpcs) {
+        double seconds = result.elapsedNanos() / 1e9;
+        Map<String, Long> rpcsByOp = rpcs.rpcsByOp();
+
+        StringBuilder out = new StringBuilder();
+        out.append("# LanguageLearnApp load test\n");
+        out.append("# ").append(settings.describe()).append('\n');
+        out.append('\n');
+        out.append(String.format(Locale.ROOT, ROW,
+                "operation", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "rpc/req"));
+
+        Histogram total = new Histogram(3);
+        long totalRequests = 0;
+        long totalErrors = 0;
+        long requestRpcs = 0;
+        for (Map.Entry<Operation, Histogram> entry : result.latency().entrySet()) {
+            Operation op = entry.getKey();
+            Histogram histogram = entry.getValue();
+            long errors = result.errors().get(op);
+            long requests = histogram.getTotalCount() + errors;
+            long opRpcs = rpcsByOp.getOrDefault(op.label(), 0L);
+
+            out.append(row(op.label(), requests, errors, seconds, histogram, opRpcs));
+            total.add(histogram);
+            totalRequests += requests;
+            totalErrors += errors;
+            requestRpcs += opRpcs;
+        }
+        out.append(row("total", totalRequests, totalErrors, seconds, total, requestRpcs));
+        out.append('\n');
+
+        long background = rpcsByOp.getOrDefault(FaultInjectingInterceptor.BACKGROUND, 0L);
+        out.append(String.format(Locale.ROOT, "background rpcs: %d (%s per request)%n",
+                background, ratio(background, totalRequests)));
+        out.append(String.format(Locale.ROOT, "dropped arrivals: %d, injected rpc failures: %d%n",
+                result.dropped(), rpcs.injectedFailures()));
+        out.append("rpcs by method:\n");
+        rpcs.rpcsByMethod().forEach((method, count) ->
+                out.append(String.format(Locale.ROOT, "  %-24s %d%n", method, count)));
+        return out.toString();
+    }
+
+    static void write(Path directory, String report, OpenWorkload.Result result) throws IOException {
+        Files.createDirectories(directory);
+        Files.writeString(directory.resolve("report.txt"), report, StandardCharsets.UTF_8);
+
+        try (PrintStream stream = new PrintStream(
+                Files.newOutputStream(directory.resolve("latency.hlog")), false, StandardCharsets.UTF_8)) {
+            HistogramLogWriter writer = new HistogramLogWriter(stream);
+            writer.outputComment("LanguageLearnApp load test, values in microseconds");
+            writer.outputLogFormatVersion();
+            writer.outputLegend();
+            for (Map.Entry<Operation, Histogram> entry : result.latency().entrySet()) {
+                Histogram histogram = entry.getValue();
+                histogram.setTag(entry.getKey().label());
+                writer.outputIntervalHistogram(histogram);
+            }
+        }
+    }
+
+    private static String row(String label, long requests, long errors, double seconds,
+                              Histogram histogram, long rpcs) {
+        return String.format(Locale.ROOT, ROW, label, requests, errors,
+                String.format(Locale.ROOT, "%.1f", requests / seconds),
+                millis(histogram, 50.0), millis(histogram, 95.0), millis(histogram, 99.0),
+                histogram.getTotalCount() == 0 ? "-" : String.format(Locale.ROOT, "%.2f", histogram.getMaxValue() / 1000.0),
+                ratio(rpcs, requests));
+    }
+
+    private static String millis(Histogram histogram, double percentile) {
+        if (histogram.getTotalCount() == 0) {
+            return "-";
+        }
+        return String.format(Locale.ROOT, "%.2f", histogram.getValueAtPercentile(percentile) / 1000.0);
+    }
+
+    private static String ratio(long count, long requests) {
+        return requests == 0 ? "-" : String.format(Locale.ROOT, "%.2f", count / (double) requests);
+    }
+}
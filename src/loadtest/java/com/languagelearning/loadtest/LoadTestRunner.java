@@ -0,0 +1,160 @@
+package com.languagelearning.loadtest;
+
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.WriteBatch;
+import com.languagelearning.app.LanguageLearnAppApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Uygulamayı aynı JVM'de, Firestore emülatörüne bağlı olarak başlatır, koleksiyonu
+ * sıfırlayıp seed eder, app.js trafiğini taklit eden açık model yükü uygular ve
+ * rapor yazar.
+ *
+ * Çalıştırma (emülatör: gcloud emulators firestore start --host-port=localhost:8081):
+ *   mvn -Ploadtest verify -Dloadtest.firestore.host=localhost:8081 -Dloadtest.rate=100
+ * Ayarların tamamı için {@link LoadTestSettings}.
+ */
+public final class LoadTestRunner {
+
+    private static final int BATCH_SIZE = 500;
+    private static final String[] SYLLABLES = {
+            "ca", "sa", "pe", "lo", "ma", "ri", "to", "na", "de", "mi", "ción", "ar", "er", "es", "la", "bu", "go"
+    };
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        // Bu değişken varsa Firestore SDK kendi emülatör kanalını kurar ve interceptor devre dışı kalır
+        if (System.getenv("FIRESTORE_EMULATOR_HOST") != null) {
+            throw new IllegalStateException("FIRESTORE_EMULATOR_HOST tanımlı olmamalı; "
+                    + "emülatör adresini -Dloadtest.firestore.host ile verin");
+        }
+        System.out.println("Load test: " + settings.describe());
+
+        HttpClient http = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        resetEmulator(http, settings);
+
+        // devtools restart'ı exec:java altında uygulamayı ikinci bir classloader'da yeniden başlatmasın
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                LanguageLearnAppApplication.class, LoadTestConfig.class)
+                .run("--server.port=0",
+                        "--firebase.lazy-init=true",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.languagelearning=WARN",
+                        "--logging.level.org.springframework.web=WARN",
+                        "--logging.level.org.springframework.boot.web=WARN",
+                        "--media.cache.directory=" + settings.output().resolve("media-cache").toAbsolutePath())) {
+
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            FaultInjectingInterceptor interceptor = context.getBean(FaultInjectingInterceptor.class);
+            List<String> wordIds = seed(context.getBean(Firestore.class), settings);
+
+            interceptor.enableFaults();
+            Operation.Context operationContext = new Operation.Context(
+                    baseUrl, settings.language(), wordIds, new AtomicLong());
+            OpenWorkload workload = new OpenWorkload(http, operationContext, settings);
+
+            System.out.println("Isınma: " + settings.warmupSeconds() + " sn");
+            workload.run(Duration.ofSeconds(settings.warmupSeconds()));
+            interceptor.reset();
+
+            System.out.println("Ölçüm: " + settings.durationSeconds() + " sn, " + settings.rate() + " istek/sn");
+            OpenWorkload.Result result = workload.run(Duration.ofSeconds(settings.durationSeconds()));
+
+            String report = LoadTestReport.render(settings, result, interceptor);
+            LoadTestReport.write(settings.output(), report, result);
+            System.out.println();
+            System.out.println(report);
+            System.out.println("Rapor: " + settings.output().resolve("report.txt").toAbsolutePath());
+        }
+    }
+
+    // Emülatörün tüm dokümanlarını sil; her koşu aynı veriyle başlasın
+    private static void resetEmulator(HttpClient http, LoadTestSettings settings) throws Exception {
+        URI uri = URI.create("http://" + settings.firestoreHost() + "/emulator/v1/projects/"
+                + settings.projectId() + "/databases/(default)/documents");
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(uri).DELETE().build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException("Firestore emülatörü sıfırlanamadı (" + uri + "): "
+                    + response.statusCode() + " " + response.body());
+        }
+    }
+
+    private static List<String> seed(Firestore firestore, LoadTestSettings settings) throws Exception {
+        long start = System.nanoTime();
+        Random random = new Random(42);
+        CollectionReference collection = firestore.collection(settings.collectionName());
+        List<String> ids = new ArrayList<>(settings.seedWords());
+
+        WriteBatch batch = firestore.batch();
+        int inBatch = 0;
+        for (int i = 0; i < settings.seedWords(); i++) {
+            DocumentReference ref = collection.document();
+            batch.set(ref, seedWord(i, random));
+            ids.add(ref.getId());
+            if (++inBatch == BATCH_SIZE) {
+                batch.commit().get();
+                batch = firestore.batch();
+                inBatch = 0;
+            }
+        }
+        if (inBatch > 0) {
+            batch.commit().get();
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("loadtest.seed-words en az 1 olmalı");
+        }
+
+        System.out.println("Seed: " + ids.size() + " kelime, "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        return ids;
+    }
+
+    // Gerçek veriye benzer dağılım: çoğu kelime az çalışılmış, küçük bir kısmı favori
+    private static Map<String, Object> seedWord(int index, Random random) {
+        int correct = random.nextInt(10) < 4 ? 0 : random.nextInt(8);
+        int incorrect = random.nextInt(4);
+
+        Map<String, Object> word = new HashMap<>();
+        word.put("word", syllables(random) + "-" + index);
+        word.put("translation", syllables(random));
+        word.put("correctCount", correct);
+        word.put("incorrectCount", incorrect);
+        word.put("studyCount", correct + incorrect);
+        word.put("lastStudyDate", new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(random.nextInt(30))));
+        word.put("difficulty", "medium");
+        word.put("category", "other");
+        word.put("isFavorite", random.nextInt(10) == 0);
+        word.put("tags", List.of("seed"));
+        return word;
+    }
+
+    private static String syllables(Random random) {
+        StringBuilder sb = new StringBuilder();
+        int count = 2 + random.nextInt(3);
+        for (int i = 0; i < count; i++) {
+            sb.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,84 @@
+package com.languagelearning.loadtest;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Yük testi ayarları; hepsi -Dloadtest.* sistem özellikleriyle verilir.
+ *
+ * @param firestoreHost  Firestore emülatörünün adresi (host:port)
+ * @param projectId      emülatörde kullanılacak proje id'si
+ * @param latencyMs      her Firestore RPC'sine eklenen sabit gecikme
+ * @param jitterMs       gecikmeye eklenen [0, jitterMs) arası rastgele pay
+ * @param failureRate    RPC'lerin UNAVAILABLE ile düşürülme olasılığı (0..1)
+ * @param language       trafiğin gideceği dil ("es" / "en")
+ * @param seedWords      testten önce koleksiyona yazılacak kelime sayısı
+ * @param rate           saniyedeki ortalama varış (Poisson, açık model); bir quiz oturumu tek varıştır,
+ *                       kartlarının progress yazımları ardından ayrıca gönderilir
+ * @param warmupSeconds  ölçülmeyen ısınma süresi
+ * @param durationSeconds ölçülen süre
+ * @param maxInFlight    harness'i korumak için eşzamanlı istek sınırı; aşılan varışlar "dropped" sayılır
+ * @param mix            işlem ağırlıkları, örn. "stats:15,list:15,...,add:5"
+ * @param output         rapor ve histogram dosyalarının yazılacağı klasör
+ */
+public record LoadTestSettings(String firestoreHost, String projectId, long latencyMs, long jitterMs,
+                               double failureRate, String language, int seedWords, double rate,
+                               int warmupSeconds, int durationSeconds, int maxInFlight,
+                               Map<Operation, Integer> mix, Path output) {
+
+    // app.js trafiğine göre varsayılan karışım: dashboard, listeler, quiz oturumları (10 kart + 10 cevap),
+    // liste ekranından tekil cevaplar, favori, ekleme
+    static final String DEFAULT_MIX =
+            "stats:15,list:12,unknown:10,new:10,favorites:5,quiz:3,progress:5,favorite:8,add:5";
+
+    public static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                System.getProperty("loadtest.firestore.host", "localhost:8081"),
+                System.getProperty("loadtest.firestore.project", "loadtest"),
+                Long.getLong("loadtest.firestore.latency-ms", 5),
+                Long.getLong("loadtest.firestore.jitter-ms", 5),
+                Double.parseDouble(System.getProperty("loadtest.firestore.failure-rate", "0")),
+                System.getProperty("loadtest.language", "es"),
+                Integer.getInteger("loadtest.seed-words", 2000),
+                Double.parseDouble(System.getProperty("loadtest.rate", "50")),
+                Integer.getInteger("loadtest.warmup-seconds", 10),
+                Integer.getInteger("loadtest.duration-seconds", 60),
+                Integer.getInteger("loadtest.max-in-flight", 2000),
+                parseMix(System.getProperty("loadtest.mix", DEFAULT_MIX)),
+                Path.of(System.getProperty("loadtest.output", "target/loadtest")));
+    }
+
+    public String collectionName() {
+        return language.equals("en") ? "englishWords" : "spanishWords";
+    }
+
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Geçersiz loadtest.mix girdisi: " + part);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.fromName(pair[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix en az bir işlem içermeli");
+        }
+        return weights;
+    }
+
+    // Rapor başlığı: iki build'in raporu karşılaştırılırken aynı ayarlarla koşulduğu görülsün
+    String describe() {
+        return "rate=" + rate + "/s warmup=" + warmupSeconds + "s duration=" + durationSeconds + "s"
+                + " language=" + language + " seed-words=" + seedWords
+                + " firestore-latency=" + latencyMs + "+" + jitterMs + "ms failure-rate=" + failureRate
+                + " mix=" + mix.entrySet().stream()
+                        .map(e -> e.getKey().label() + ":" + e.getValue())
+                        .collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,204 @@
+package com.languagelearning.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Açık model yük üreteci: istekler Poisson varışlarla, önceki isteklerin bitmesini
+ * beklemeden gönderilir. Gecikme, isteğin planlanan başlangıç anından ölçülür;
+ * böylece üreteç geride kalsa bile kuyrukta geçen süre sonuçtan kaybolmaz
+ * (coordinated omission yok).
+ *
+ * QUIZ varışı bir oturumdur: /quiz?count=10 cevabındaki her kart için, app.js'teki gibi
+ * sırayla bir progress yazımı yapılır. Cevaplar PROGRESS satırına yazılır; planlanan
+ * başlangıçları bir önceki cevabın bittiği andır.
+ */
+final class OpenWorkload {
+
+    // 60 sn üstü cevaplar histogramın üst sınırına yazılır (mikrosaniye)
+    private static final long MAX_LATENCY_MICROS = TimeUnit.SECONDS.toMicros(60);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration SESSION_DRAIN_TIMEOUT = Duration.ofSeconds(60);
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final HttpClient client;
+    private final Operation.Context context;
+    private final double rate;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    private final Map<Operation, Recorder> latency = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicInteger openSessions = new AtomicInteger();
+
+    /** Bir ölçüm aralığının sonucu. */
+    record Result(long elapsedNanos, Map<Operation, Histogram> latency, Map<Operation, Long> errors, long dropped) {}
+
+    OpenWorkload(HttpClient client, Operation.Context context, LoadTestSettings settings) {
+        this.client = client;
+        this.context = context;
+        this.rate = settings.rate();
+        this.maxInFlight = settings.maxInFlight();
+        this.inFlight = new Semaphore(maxInFlight);
+
+        Map<Operation, Integer> mix = settings.mix();
+        this.operations = mix.keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+        // Quiz oturumlarının cevapları karışımda progress olmasa da ölçülür
+        Set<Operation> recorded = EnumSet.copyOf(mix.keySet());
+        if (recorded.contains(Operation.QUIZ)) {
+            recorded.add(Operation.PROGRESS);
+        }
+        for (Operation op : recorded) {
+            latency.put(op, new Recorder(MAX_LATENCY_MICROS, 3));
+            errors.put(op, new LongAdder());
+        }
+    }
+
+    /** Verilen süre boyunca yük üretir, kalan istekleri bekler ve aralığın sonuçlarını döndürür. */
+    Result run(Duration duration) throws InterruptedException {
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long intended = start;
+        double meanGapNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+
+        while (true) {
+            intended += (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * meanGapNanos);
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            fire(pick(), intended);
+        }
+
+        // Açık kalan oturumlar ve istekler bitmeden aralığı kapatma
+        long sessionDeadline = System.nanoTime() + SESSION_DRAIN_TIMEOUT.toNanos();
+        while (openSessions.get() > 0 && System.nanoTime() < sessionDeadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        if (inFlight.tryAcquire(maxInFlight, REQUEST_TIMEOUT.toSeconds() + 5, TimeUnit.SECONDS)) {
+            inFlight.release(maxInFlight);
+        }
+        return drain(System.nanoTime() - start);
+    }
+
+    private void fire(Operation op, long intendedStart) {
+        if (op != Operation.QUIZ) {
+            send(op, op.request(context), intendedStart);
+            return;
+        }
+        openSessions.incrementAndGet();
+        send(op, op.request(context), intendedStart).thenAccept(body -> {
+            List<String> cardIds = body == null ? List.of() : cardIds(body);
+            answer(cardIds, 0);
+        });
+    }
+
+    // Kartlar sırayla cevaplanır; son cevaptan (veya hatalı quiz cevabından) sonra oturum kapanır
+    private void answer(List<String> cardIds, int index) {
+        if (index >= cardIds.size()) {
+            openSessions.decrementAndGet();
+            return;
+        }
+        send(Operation.PROGRESS, Operation.progress(context, cardIds.get(index)), System.nanoTime())
+                .thenRun(() -> answer(cardIds, index + 1));
+    }
+
+    // Sadece QUIZ cevabının gövdesi okunur; hata, düşürme veya diğer işlemlerde null
+    private CompletableFuture<String> send(Operation op, HttpRequest.Builder builder, long intendedStart) {
+        if (!inFlight.tryAcquire()) {
+            dropped.increment();
+            return CompletableFuture.completedFuture(null);
+        }
+        HttpRequest request = builder
+                .header(LoadTestConfig.OP_HEADER, op.label())
+                .timeout(REQUEST_TIMEOUT)
+                .build();
+        HttpResponse.BodyHandler<String> handler = op == Operation.QUIZ
+                ? HttpResponse.BodyHandlers.ofString()
+                : HttpResponse.BodyHandlers.replacing(null);
+
+        return client.sendAsync(request, handler)
+                .handle((response, error) -> {
+                    long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart);
+                    try {
+                        if (error != null || response.statusCode() >= 400) {
+                            errors.get(op).increment();
+                            return null;
+                        }
+                        latency.get(op).recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+                        return response.body();
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+    }
+
+    private static List<String> cardIds(String body) {
+        List<String> ids = new ArrayList<>();
+        try {
+            for (JsonNode card : JSON.readTree(body)) {
+                String id = card.path("id").asText(null);
+                if (id != null) {
+                    ids.add(id);
+                }
+            }
+        } catch (JsonProcessingException e) {
+            System.err.println("Quiz cevabı okunamadı: " + e.getMessage());
+        }
+        return ids;
+    }
+
+    private Operation pick() {
+        int ticket = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (ticket < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private Result drain(long elapsedNanos) {
+        Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        Map<Operation, Long> errorCounts = new EnumMap<>(Operation.class);
+        for (Operation op : latency.keySet()) {
+            histograms.put(op, latency.get(op).getIntervalHistogram());
+            errorCounts.put(op, errors.get(op).sumThenReset());
+        }
+        return new Result(elapsedNanos, histograms, errorCounts, dropped.sumThenReset());
+    }
+}
@@ -0,0 +1,129 @@
+package com.languagelearning.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * app.js'in yaptığı çağrılar. Her işlem, seed edilen kelime id'lerini kullanarak
+ * tek bir HTTP isteği üretir; QUIZ bir oturum başlatır (bkz. {@link OpenWorkload}).
+ */
+public enum Operation {
+    // Dashboard açılışı / dil değişimi
+    STATS("stats") {
+        @Override
+        HttpRequest.Builder request(Context ctx) {
+            return get(ctx, "/statistics");
+        }
+    },
+    // "Tüm kelimeler" sonsuz kaydırma: ilk sayfa ya da rastgele bir kelimeden sonrası
+    LIST("list") {
+        @Override
+        HttpRequest.Builder request(Context ctx) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            String after = random.nextInt(4) == 0 ? "" : "&lastWordId=" + ctx.randomWordId();
+            return get(ctx, "/paginated?limit=20" + after);
+        }
+    },
+    UNKNOWN("unknown") {
+        @Override
+        HttpRequest.Builder request(Context ctx) {
+            return get(ctx, "/unknown");
+        }
+    },
+    NEW("new") {
+        @Override
+        HttpRequest.Builder request(Context ctx) {
+            return get(ctx, "/new");
+        }
+    },
+    FAVORITES("favorites") {
+        @Override
+        HttpRequest.Builder request(Context ctx) {
+            return get(ctx, "/favorites");
+        }
+    },
+    QUIZ("quiz") {
+        @Override
+        HttpRequest.Builder request(Context ctx) {
+            return get(ctx, "/quiz?count=10");
+        }
+    },
+    // Kelime listesinden tekil cevap; quiz cevapları oturumun kendi kartlarına gider
+    PROGRESS("progress") {
+        @Override
+        HttpRequest.Builder request(Context ctx) {
+            return progress(ctx, ctx.randomWordId());
+        }
+    },
+    FAVORITE("favorite") {
+        @Override
+        HttpRequest.Builder request(Context ctx) {
+            return HttpRequest.newBuilder(ctx.uri("/" + ctx.randomWordId() + "/favorite"))
+                    .PUT(HttpRequest.BodyPublishers.noBody());
+        }
+    },
+    // Her ekleme benzersiz; duplicate birleştirme yoluna düşmesin
+    ADD("add") {
+        @Override
+        HttpRequest.Builder request(Context ctx) {
+            long n = ctx.nextAddSequence();
+            String body = "{\"word\":\"lt-word-" + n + "\",\"translation\":\"lt-translation-" + n + "\","
+                    + "\"category\":\"other\",\"difficulty\":\"medium\",\"tags\":[\"loadtest\"]}";
+            return HttpRequest.newBuilder(ctx.uri(""))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body));
+        }
+    };
+
+    private final String label;
+
+    Operation(String label) {
+        this.label = label;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    abstract HttpRequest.Builder request(Context ctx);
+
+    static Operation fromName(String name) {
+        for (Operation op : values()) {
+            if (op.label.equalsIgnoreCase(name)) {
+                return op;
+            }
+        }
+        throw new IllegalArgumentException("Bilinmeyen işlem: " + name);
+    }
+
+    // Cevapların ~2/3'ü doğru
+    static HttpRequest.Builder progress(Context ctx, String wordId) {
+        boolean correct = ThreadLocalRandom.current().nextInt(3) > 0;
+        return HttpRequest.newBuilder(ctx.uri("/" + wordId + "/progress"))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString("{\"correct\":" + correct + "}"));
+    }
+
+    private static HttpRequest.Builder get(Context ctx, String path) {
+        return HttpRequest.newBuilder(ctx.uri(path)).GET();
+    }
+
+    /** İstek üretmek için gereken paylaşılan durum. */
+    record Context(String baseUrl, String language, List<String> wordIds, AtomicLong addSequence) {
+
+        URI uri(String path) {
+            return URI.create(baseUrl + "/api/words/" + language + path);
+        }
+
+        String randomWordId() {
+            return wordIds.get(ThreadLocalRandom.current().nextInt(wordIds.size()));
+        }
+
+        long nextAddSequence() {
+            return addSequence.incrementAndGet();
+        }
+    }
+}
@@ -2,14 +2,24 @@ package com.languagelearning.app;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @ComponentScan(basePackages = {"com.languagelearning"})
+@EnableScheduling
 public class LanguageLearnAppApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(LanguageLearnAppApplication.class, args);
+		SpringApplication app = new SpringApplication(LanguageLearnAppApplication.class);
+
+		// Sadece bean oluşturma adımlarını tut, StartupReport en yavaşlarını loglar
+		BufferingApplicationStartup startup = new BufferingApplicationStartup(2048);
+		startup.addFilter(step -> step.getName().equals("spring.beans.instantiate"));
+		app.setApplicationStartup(startup);
+
+		app.run(args);
 	}
 
 }
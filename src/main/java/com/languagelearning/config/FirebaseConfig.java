@@ -5,13 +5,14 @@ import com.google.cloud.firestore.Firestore;
 import com.google.firebase.FirebaseApp;
 import com.google.firebase.FirebaseOptions;
 import com.google.firebase.cloud.FirestoreClient;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 
-import javax.annotation.PostConstruct;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -23,10 +24,22 @@ public class FirebaseConfig {
     @Value("${firebase.config.path:/etc/secrets/serviceAccountKey.json}")
     private String firebaseConfigPath;
 
-    private boolean isInitialized = false;
+    // fast-startup profilinde true: Firebase ilk kullanımda (veya arka plan ısınmasında) başlatılır
+    @Value("${firebase.lazy-init:false}")
+    private boolean lazyInit;
+
+    private volatile boolean isInitialized = false;
 
     @PostConstruct
-    public void initialize() {
+    public void init() {
+        if (lazyInit) {
+            System.out.println("Firebase başlatma ilk kullanıma ertelendi (firebase.lazy-init=true)");
+            return;
+        }
+        initialize();
+    }
+
+    public synchronized void initialize() {
         if (isInitialized || !FirebaseApp.getApps().isEmpty()) {
             System.out.println("Firebase zaten başlatıldı");
             return;
@@ -92,7 +105,9 @@ public class FirebaseConfig {
         }
     }
 
+    // @Lazy: enjeksiyon noktaları da @Lazy ise bean ilk metod çağrısında oluşturulur
     @Bean
+    @Lazy
     public Firestore firestore() {
         // Firebase'in başlatıldığından emin ol
         if (!isInitialized && FirebaseApp.getApps().isEmpty()) {
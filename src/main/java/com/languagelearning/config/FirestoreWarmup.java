@@ -0,0 +1,45 @@
+package com.languagelearning.config;
+
+import com.google.cloud.firestore.Firestore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lazy modda uygulama trafiğe açıldıktan sonra Firebase'i arka planda başlatır
+ * ve Firestore gRPC kanalını ısıtır; böylece ilk istek bu maliyeti ödemez.
+ */
+@Component
+public class FirestoreWarmup {
+
+    @Value("${firebase.lazy-init:false}")
+    private boolean lazyInit;
+
+    @Autowired
+    private ObjectProvider<Firestore> firestoreProvider;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!lazyInit) {
+            return;
+        }
+
+        Thread thread = new Thread(() -> {
+            long start = System.nanoTime();
+            try {
+                Firestore firestore = firestoreProvider.getObject();
+                firestore.collection("test").limit(1).get().get();
+                System.out.println("Firestore arka planda hazırlandı: "
+                        + (System.nanoTime() - start) / 1_000_000 + " ms");
+            } catch (Exception e) {
+                // İlk gerçek istek başlatmayı tekrar dener
+                System.err.println("Firestore ısınması başarısız: " + e.getMessage());
+            }
+        }, "firestore-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+}
@@ -0,0 +1,17 @@
+package com.languagelearning.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    // Reflection yerine LambdaMetafactory ile üretilen getter/setter erişimi.
+    // Spring Boot, Module bean'lerini otomatik olarak ObjectMapper'a kaydeder.
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
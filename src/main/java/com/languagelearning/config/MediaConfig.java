@@ -0,0 +1,25 @@
+package com.languagelearning.config;
+
+import com.languagelearning.service.HttpMediaSource;
+import com.languagelearning.service.LocalDirectoryMediaSource;
+import com.languagelearning.service.MediaSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Paths;
+
+@Configuration
+public class MediaConfig {
+
+    // media.source.directory verilirse uzak origin yerine o dizin kullanılır (test/geliştirme)
+    @Bean
+    public MediaSource mediaSource(@Value("${media.source.directory:}") String sourceDirectory,
+                                   @Value("${media.source.max-bytes:20971520}") long maxBytes) {
+        if (sourceDirectory != null && !sourceDirectory.isBlank()) {
+            System.out.println("Media kaynağı: yerel dizin " + sourceDirectory);
+            return new LocalDirectoryMediaSource(Paths.get(sourceDirectory));
+        }
+        return new HttpMediaSource(maxBytes);
+    }
+}
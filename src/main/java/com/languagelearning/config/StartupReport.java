@@ -0,0 +1,71 @@
+package com.languagelearning.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Comparator;
+
+/**
+ * Açılış aşamalarının sürelerini loglar: JVM -> main, main -> hazır ve
+ * (BufferingApplicationStartup aktifse) en yavaş bean oluşturma adımları.
+ */
+@Component
+public class StartupReport {
+
+    @Value("${startup.report.top-steps:5}")
+    private int topSteps;
+
+    private long contextStartedMillis = -1;
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void started(ApplicationStartedEvent event) {
+        if (event.getTimeTaken() != null) {
+            contextStartedMillis = event.getTimeTaken().toMillis();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report(ApplicationReadyEvent event) {
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        long mainToReady = event.getTimeTaken() != null ? event.getTimeTaken().toMillis() : -1;
+
+        System.out.println("Startup: JVM -> main " + Math.max(0, uptime - mainToReady) + " ms, "
+                + "context refresh " + contextStartedMillis + " ms, "
+                + "runner'lar " + (mainToReady - contextStartedMillis) + " ms, "
+                + "toplam " + uptime + " ms");
+
+        ApplicationStartup startup = event.getSpringApplication().getApplicationStartup();
+        if (!(startup instanceof BufferingApplicationStartup buffering) || topSteps <= 0) {
+            return;
+        }
+
+        StartupTimeline timeline = buffering.getBufferedTimeline();
+        timeline.getEvents().stream()
+                .filter(e -> e.getStartupStep().getName().equals("spring.beans.instantiate"))
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(topSteps)
+                .forEach(e -> System.out.println("  " + formatDuration(e.getDuration()) + "  "
+                        + beanName(e)));
+    }
+
+    private static String beanName(StartupTimeline.TimelineEvent event) {
+        for (var tag : event.getStartupStep().getTags()) {
+            if (tag.getKey().equals("beanName")) {
+                return tag.getValue();
+            }
+        }
+        return event.getStartupStep().getName();
+    }
+
+    private static String formatDuration(Duration duration) {
+        return String.format("%5d ms", duration.toMillis());
+    }
+}
@@ -0,0 +1,176 @@
+package com.languagelearning.controller;
+
+import com.languagelearning.service.MediaCacheService;
+import com.languagelearning.service.MediaCacheService.CachedMedia;
+import com.languagelearning.service.MediaCacheService.Kind;
+import com.languagelearning.service.WordService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+
+@RestController
+@RequestMapping("/api/media")
+@CrossOrigin(origins = "*")
+public class MediaController {
+
+    // Tomcat NIO connector'ın sendfile desteği (çekirdek seviyesinde zero-copy)
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Autowired
+    private MediaCacheService mediaCacheService;
+
+    @Autowired
+    private WordService wordService;
+
+    @GetMapping("/{language}/{wordId}/audio")
+    public void getAudio(@PathVariable String language, @PathVariable String wordId,
+                         HttpServletRequest request, HttpServletResponse response) throws IOException {
+        serve(language, wordId, Kind.AUDIO, request, response);
+    }
+
+    @GetMapping("/{language}/{wordId}/image")
+    public void getImage(@PathVariable String language, @PathVariable String wordId,
+                         HttpServletRequest request, HttpServletResponse response) throws IOException {
+        serve(language, wordId, Kind.IMAGE, request, response);
+    }
+
+    private void serve(String language, String wordId, Kind kind,
+                       HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String collectionName = language.equals("en") ? "englishWords" : "spanishWords";
+
+        // Dosya başlıklar yazılmadan açılır; eşzamanlı bir eviction dosyayı silmişse yeniden indirilir
+        CachedMedia media = mediaCacheService.getIfCached(collectionName, wordId, kind);
+        FileChannel channel = media == null ? null : openIfPresent(media);
+        if (channel == null) {
+            String url;
+            try {
+                url = wordService.getMediaUrl(language, wordId, kind);
+            } catch (Exception e) {
+                System.err.println("Medya adresi alınamadı: " + e.getMessage());
+                response.sendError(HttpServletResponse.SC_BAD_GATEWAY);
+                return;
+            }
+            if (url == null || url.isBlank()) {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+            try {
+                media = mediaCacheService.get(collectionName, wordId, kind, url);
+                channel = FileChannel.open(media.path(), StandardOpenOption.READ);
+            } catch (IOException e) {
+                System.err.println("Medya indirilemedi: " + url + " - " + e.getMessage());
+                response.sendError(HttpServletResponse.SC_BAD_GATEWAY);
+                return;
+            }
+        }
+
+        try (channel) {
+            write(media, channel, request, response);
+        }
+    }
+
+    private static FileChannel openIfPresent(CachedMedia media) throws IOException {
+        try {
+            return FileChannel.open(media.path(), StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private void write(CachedMedia media, FileChannel channel,
+                       HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long length = channel.size();
+        long start = 0;
+        long end = length - 1;
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=86400");
+        response.setContentType(media.contentType());
+        // Tarayıcı içeriği koklayıp farklı bir tip (ör. HTML) olarak yorumlamasın
+        response.setHeader("X-Content-Type-Options", "nosniff");
+
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && range.startsWith("bytes=") && range.indexOf(',') < 0) {
+            long[] bounds = parseRange(range.substring("bytes=".length()).trim(), length);
+            if (bounds == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            start = bounds[0];
+            end = bounds[1];
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count <= 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Gövdeyi Tomcat sendfile ile yazar, veri kullanıcı alanına hiç kopyalanmaz. Tomcat dosyayı
+            // handler döndükten sonra adıyla açar; cache evict edilen dosyaları bu yüzden gecikmeli siler
+            request.setAttribute(SENDFILE_FILENAME, media.path().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+        long position = start;
+        long remaining = count;
+        while (remaining > 0) {
+            long written = channel.transferTo(position, remaining, out);
+            if (written <= 0) {
+                break;
+            }
+            position += written;
+            remaining -= written;
+        }
+    }
+
+    // "a-b", "a-" veya "-n" (son n bayt); geçersizse null
+    private static long[] parseRange(String spec, long length) {
+        int dash = spec.indexOf('-');
+        if (dash < 0 || length == 0) {
+            return null;
+        }
+        try {
+            String from = spec.substring(0, dash).trim();
+            String to = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (from.isEmpty()) {
+                long suffix = Long.parseLong(to);
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(from);
+                end = to.isEmpty() ? length - 1 : Math.min(Long.parseLong(to), length - 1);
+            }
+            if (start < 0 || start >= length || end < start) {
+                return null;
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -1,13 +1,15 @@
 package com.languagelearning.controller;
 
 import com.languagelearning.model.Word;
+import com.languagelearning.service.DuplicateWordException;
 import com.languagelearning.service.WordService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import jakarta.annotation.PostConstruct;
-import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 
@@ -57,8 +59,7 @@ public class WordController {
             @RequestParam(defaultValue = "20") int limit) {
         System.out.println("Getting paginated words for language: " + language);
         try {
-            Map<String, Object> result = wordService.getWordsPaginated(language, lastWordId, limit);
-            return ResponseEntity.ok(result);
+            return json(wordService.getWordsPaginatedJson(language, lastWordId, limit));
         } catch (Exception e) {
             System.err.println("Error getting paginated words: " + e.getMessage());
             e.printStackTrace();
@@ -75,8 +76,7 @@ public class WordController {
             @RequestParam(defaultValue = "20") int limit) {
         System.out.println("Getting lazy loaded words for language: " + language);
         try {
-            List<Word> words = wordService.getWordsLazy(language, offset, limit);
-            return ResponseEntity.ok(words);
+            return json(wordService.getWordsLazyJson(language, offset, limit));
         } catch (Exception e) {
             System.err.println("Error getting lazy words: " + e.getMessage());
             e.printStackTrace();
@@ -89,9 +89,7 @@ public class WordController {
     public ResponseEntity<?> getAllWords(@PathVariable String language) {
         System.out.println("Getting all words for language: " + language);
         try {
-            List<Word> words = wordService.getAllWords(language);
-            System.out.println("Found " + words.size() + " words");
-            return ResponseEntity.ok(words);
+            return json(wordService.getAllWordsJson(language));
         } catch (Exception e) {
             System.err.println("Error getting words: " + e.getMessage());
             e.printStackTrace();
@@ -107,7 +105,7 @@ public class WordController {
     public ResponseEntity<?> getUnknownWords(@PathVariable String language) {
         System.out.println("Getting unknown words for language: " + language);
         try {
-            return ResponseEntity.ok(wordService.getUnknownWords(language));
+            return json(wordService.getUnknownWordsJson(language));
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -119,7 +117,19 @@ public class WordController {
     public ResponseEntity<?> getNewWords(@PathVariable String language) {
         System.out.println("Getting new words for language: " + language);
         try {
-            return ResponseEntity.ok(wordService.getNewWords(language));
+            return json(wordService.getNewWordsJson(language));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{language}/due")
+    public ResponseEntity<?> getDueWords(@PathVariable String language) {
+        System.out.println("Getting due words for language: " + language);
+        try {
+            return json(wordService.getDueWordsJson(language));
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -130,7 +140,7 @@ public class WordController {
     @GetMapping("/{language}/favorites")
     public ResponseEntity<?> getFavoriteWords(@PathVariable String language) {
         try {
-            return ResponseEntity.ok(wordService.getFavoriteWords(language));
+            return json(wordService.getFavoriteWordsJson(language));
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -144,7 +154,21 @@ public class WordController {
             @RequestParam(defaultValue = "10") int count) {
         System.out.println("Getting quiz words for language: " + language);
         try {
-            return ResponseEntity.ok(wordService.getQuizWords(language, count));
+            return json(wordService.getQuizWordsJson(language, count));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{language}/quiz/mc")
+    public ResponseEntity<?> getMultipleChoiceQuiz(
+            @PathVariable String language,
+            @RequestParam(defaultValue = "10") int count,
+            @RequestParam(defaultValue = "4") int choices) {
+        try {
+            return ResponseEntity.ok(wordService.getMultipleChoiceQuiz(language, count, choices));
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -152,6 +176,12 @@ public class WordController {
         }
     }
 
+    // Dashboard'un /statistics'i tekrar tekrar çekmesi yerine canlı farklar (SSE)
+    @GetMapping(value = "/{language}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter liveUpdates(@PathVariable String language) {
+        return wordService.subscribeLiveUpdates(language);
+    }
+
     @GetMapping("/{language}/statistics")
     public ResponseEntity<?> getStatistics(@PathVariable String language) {
         try {
@@ -177,6 +207,39 @@ public class WordController {
         System.out.println("Adding new word: " + word.getWord());
         try {
             return ResponseEntity.ok(wordService.addWord(language, word));
+        } catch (DuplicateWordException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            error.put("existingId", e.getExistingId());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/{language}/deduplicate")
+    public ResponseEntity<?> deduplicate(
+            @PathVariable String language,
+            @RequestParam(defaultValue = "true") boolean dryRun) {
+        System.out.println("Deduplicating words for language: " + language + " (dryRun=" + dryRun + ")");
+        try {
+            return ResponseEntity.ok(wordService.deduplicate(language, dryRun));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/{language}/reclassify")
+    public ResponseEntity<?> reclassify(
+            @PathVariable String language,
+            @RequestParam(defaultValue = "false") boolean overwrite) {
+        System.out.println("Reclassifying words for language: " + language + " (overwrite=" + overwrite + ")");
+        try {
+            return ResponseEntity.ok(wordService.reclassify(language, overwrite));
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -244,4 +307,11 @@ public class WordController {
         }
     }
 
+    // Önceden serileştirilmiş JSON dizisini Jackson'a tekrar sokmadan gönder
+    private ResponseEntity<byte[]> json(byte[] body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
 }
\ No newline at end of file
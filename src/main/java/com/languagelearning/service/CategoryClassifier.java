@@ -0,0 +1,249 @@
+package com.languagelearning.service;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Dil başına sonek kurallarıyla kelime kategorisi tahmini (verb, noun, adjective, adverb).
+ * Kurallar classpath:classifier/{dil}.rules dosyalarından okunur ve ters çevrilmiş
+ * soneklerden oluşan bir otomata derlenir; her kelime sondan başa tek geçişte,
+ * allocation yapmadan eşleştirilir.
+ */
+@Component
+public class CategoryClassifier {
+
+    public static final String DEFAULT_CATEGORY = "other";
+
+    private static final String RULES_LOCATION = "classpath:classifier/*.rules";
+    private static final int PARALLEL_THRESHOLD = 2048;
+
+    private final Map<String, SuffixAutomaton> automata = new HashMap<>();
+
+    public CategoryClassifier() throws IOException {
+        Resource[] resources = new PathMatchingResourcePatternResolver().getResources(RULES_LOCATION);
+        for (Resource resource : resources) {
+            String fileName = Objects.requireNonNull(resource.getFilename());
+            String language = fileName.substring(0, fileName.length() - ".rules".length());
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+                automata.put(language, SuffixAutomaton.compile(fileName, reader.lines().toList()));
+            }
+        }
+        System.out.println("Kategori kuralları yüklendi: " + automata.keySet());
+    }
+
+    public String classify(String language, String word) {
+        SuffixAutomaton automaton = automatonFor(language);
+        if (automaton == null || word == null) {
+            return DEFAULT_CATEGORY;
+        }
+        return automaton.classify(word);
+    }
+
+    // Büyük listeler fork-join ile parçalara bölünerek paralel sınıflandırılır
+    public String[] classifyAll(String language, List<String> words) {
+        String[] categories = new String[words.size()];
+        SuffixAutomaton automaton = automatonFor(language);
+        if (automaton == null) {
+            Arrays.fill(categories, DEFAULT_CATEGORY);
+            return categories;
+        }
+        ForkJoinPool.commonPool().invoke(new ClassifyTask(automaton, words, categories, 0, words.size()));
+        return categories;
+    }
+
+    // WordService ile aynı eşleme: "en" dışındaki diller İspanyolca koleksiyonu kullanır
+    private SuffixAutomaton automatonFor(String language) {
+        return automata.get(language.equals("en") ? "en" : "es");
+    }
+
+    private static final class ClassifyTask extends RecursiveAction {
+        private final SuffixAutomaton automaton;
+        private final List<String> words;
+        private final String[] out;
+        private final int from;
+        private final int to;
+
+        ClassifyTask(SuffixAutomaton automaton, List<String> words, String[] out, int from, int to) {
+            this.automaton = automaton;
+            this.words = words;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    String word = words.get(i);
+                    out[i] = word == null ? DEFAULT_CATEGORY : automaton.classify(word);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ClassifyTask(automaton, words, out, from, mid),
+                    new ClassifyTask(automaton, words, out, mid, to));
+        }
+    }
+
+    /**
+     * Ters sonek trie'si, düz dizilere sıkıştırılmış halde. Düğüm i'nin çocukları
+     * labels/targets[childStart[i] .. childStart[i+1]) aralığında, etikete göre sıralı.
+     */
+    static final class SuffixAutomaton {
+
+        private final int[] childStart;
+        private final char[] labels;
+        private final int[] targets;
+        // Düğüme kadar okunan sonek için kategori (-1: yok) ve gereken minimum kelime uzunluğu
+        private final int[] suffixCategory;
+        private final int[] suffixMinLength;
+        // "^" kuralları: sadece tüm kelime bu düğümde bittiğinde geçerli
+        private final int[] wordCategory;
+        private final String[] categories;
+
+        private SuffixAutomaton(int[] childStart, char[] labels, int[] targets, int[] suffixCategory,
+                                int[] suffixMinLength, int[] wordCategory, String[] categories) {
+            this.childStart = childStart;
+            this.labels = labels;
+            this.targets = targets;
+            this.suffixCategory = suffixCategory;
+            this.suffixMinLength = suffixMinLength;
+            this.wordCategory = wordCategory;
+            this.categories = categories;
+        }
+
+        String classify(String word) {
+            int start = 0;
+            int end = word.length();
+            while (start < end && Character.isWhitespace(word.charAt(start))) {
+                start++;
+            }
+            while (end > start && Character.isWhitespace(word.charAt(end - 1))) {
+                end--;
+            }
+            int length = end - start;
+
+            int node = 0;
+            int best = -1;
+            for (int i = end - 1; i >= start; i--) {
+                node = child(node, Character.toLowerCase(word.charAt(i)));
+                if (node < 0) {
+                    break;
+                }
+                if (i == start && wordCategory[node] >= 0) {
+                    return categories[wordCategory[node]];
+                }
+                if (suffixCategory[node] >= 0 && length >= suffixMinLength[node]) {
+                    best = suffixCategory[node];
+                }
+            }
+            return best >= 0 ? categories[best] : DEFAULT_CATEGORY;
+        }
+
+        private int child(int node, char c) {
+            int lo = childStart[node];
+            int hi = childStart[node + 1] - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                char label = labels[mid];
+                if (label < c) {
+                    lo = mid + 1;
+                } else if (label > c) {
+                    hi = mid - 1;
+                } else {
+                    return targets[mid];
+                }
+            }
+            return -1;
+        }
+
+        // Biçim: "<sonek> <kategori> [minUzunluk]", "#" yorum, "^kelime" tam eşleşme
+        static SuffixAutomaton compile(String source, List<String> lines) {
+            List<TreeMap<Character, Integer>> children = new ArrayList<>();
+            List<int[]> outputs = new ArrayList<>(); // {suffixCategory, suffixMinLength, wordCategory}
+            List<String> categories = new ArrayList<>();
+            children.add(new TreeMap<>());
+            outputs.add(new int[]{-1, 0, -1});
+
+            int lineNumber = 0;
+            for (String raw : lines) {
+                lineNumber++;
+                int hash = raw.indexOf('#');
+                String line = (hash >= 0 ? raw.substring(0, hash) : raw).trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String[] parts = line.split("\\s+");
+                if (parts.length < 2 || parts.length > 3) {
+                    throw new IllegalArgumentException(source + ":" + lineNumber + " geçersiz kural: " + raw);
+                }
+
+                boolean wholeWord = parts[0].startsWith("^");
+                String suffix = (wholeWord ? parts[0].substring(1) : parts[0]).toLowerCase(Locale.ROOT);
+                int category = categories.indexOf(parts[1]);
+                if (category < 0) {
+                    category = categories.size();
+                    categories.add(parts[1]);
+                }
+                int minLength = parts.length == 3 ? Integer.parseInt(parts[2]) : 0;
+
+                int node = 0;
+                for (int i = suffix.length() - 1; i >= 0; i--) {
+                    char c = suffix.charAt(i);
+                    Integer next = children.get(node).get(c);
+                    if (next == null) {
+                        next = children.size();
+                        children.get(node).put(c, next);
+                        children.add(new TreeMap<>());
+                        outputs.add(new int[]{-1, 0, -1});
+                    }
+                    node = next;
+                }
+                if (wholeWord) {
+                    outputs.get(node)[2] = category;
+                } else {
+                    outputs.get(node)[0] = category;
+                    outputs.get(node)[1] = minLength;
+                }
+            }
+
+            int nodes = children.size();
+            int edges = children.stream().mapToInt(Map::size).sum();
+            int[] childStart = new int[nodes + 1];
+            char[] labels = new char[edges];
+            int[] targets = new int[edges];
+            int[] suffixCategory = new int[nodes];
+            int[] suffixMinLength = new int[nodes];
+            int[] wordCategory = new int[nodes];
+
+            int edge = 0;
+            for (int n = 0; n < nodes; n++) {
+                childStart[n] = edge;
+                for (Map.Entry<Character, Integer> e : children.get(n).entrySet()) {
+                    labels[edge] = e.getKey();
+                    targets[edge] = e.getValue();
+                    edge++;
+                }
+                int[] output = outputs.get(n);
+                suffixCategory[n] = output[0];
+                suffixMinLength[n] = output[1];
+                wordCategory[n] = output[2];
+            }
+            childStart[nodes] = edge;
+
+            return new SuffixAutomaton(childStart, labels, targets, suffixCategory, suffixMinLength,
+                    wordCategory, categories.toArray(String[]::new));
+        }
+    }
+}
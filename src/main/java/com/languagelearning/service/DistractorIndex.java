@@ -0,0 +1,429 @@
+package com.languagelearning.service;
+
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Çoktan seçmeli quiz için yanlış şıklar (distractor) üretir. Koleksiyon başına kelimeler
+ * ve çevirileri üzerinde bigram (2-gram) ters index'leri tutulur; doğru cevaba yazımca ya da
+ * kelimesi soruya benzeyen çeviriler şık olarak seçilir. Index bir kez yüklenir,
+ * WordService mutasyonlarıyla güncel tutulur ve periyodik taramalar yerinde birleştirilir.
+ */
+@Service
+public class DistractorIndex {
+
+    // Her kaynaktan (kelime / çeviri benzerliği) bakılacak aday sayısı
+    private static final int CANDIDATES = 16;
+    // Silinen slotlar index'te kalır; oranı geçince index sıkıştırılıp yeniden kurulur
+    private static final double REBUILD_RATIO = 0.25;
+
+    record Item(String id, String word, String translation, String foldedWord, String foldedTranslation) {}
+
+    private static final class CollectionIndex {
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        // slot -> kelime (silinmişse null); n-gram index'leri slot numarası tutar
+        final List<Item> slots = new ArrayList<>();
+        final Map<String, Integer> slotById = new HashMap<>();
+        NgramIndex byWord = new NgramIndex();
+        NgramIndex byTranslation = new NgramIndex();
+        int removed;
+        // Tarama sürerken değişen id'ler; tarama sonucu bunlarda bellekteki hali ezmemeli
+        final Set<String> touchedIds = new HashSet<>();
+        boolean reloading;
+        // İlk tarama bitene kadar soru üretilmez
+        volatile boolean ready;
+
+        int live() {
+            return slots.size() - removed;
+        }
+    }
+
+    private final Firestore firestore;
+    private final Map<String, CollectionIndex> indexes = new ConcurrentHashMap<>();
+
+    @Autowired
+    public DistractorIndex(@Lazy Firestore firestore) {
+        this.firestore = firestore;
+    }
+
+    /**
+     * count adet rastgele soru; her soruda doğru çeviri + (choices - 1) benzer yanlış şık,
+     * karıştırılmış halde. answerIndex doğru şıkkın sırasıdır.
+     */
+    public List<Map<String, Object>> multipleChoice(String collectionName, int count, int choices)
+            throws ExecutionException, InterruptedException {
+        CollectionIndex index = load(collectionName);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Map<String, Object>> questions = new ArrayList<>();
+
+        index.lock.readLock().lock();
+        try {
+            int questionCount = Math.min(Math.max(count, 0), index.live());
+            Set<Integer> picked = new HashSet<>();
+            while (picked.size() < questionCount) {
+                int slot = random.nextInt(index.slots.size());
+                if (index.slots.get(slot) != null) {
+                    picked.add(slot);
+                }
+            }
+
+            for (int slot : picked) {
+                Item item = index.slots.get(slot);
+                List<String> options = distractors(index, slot, item, Math.max(choices, 2) - 1, random);
+                int answerIndex = random.nextInt(options.size() + 1);
+                options.add(answerIndex, item.translation());
+
+                Map<String, Object> question = new LinkedHashMap<>();
+                question.put("wordId", item.id());
+                question.put("word", item.word());
+                question.put("choices", options);
+                question.put("answerIndex", answerIndex);
+                questions.add(question);
+            }
+        } finally {
+            index.lock.readLock().unlock();
+        }
+        return questions;
+    }
+
+    public void put(String collectionName, String wordId, String word, String translation) {
+        CollectionIndex index = indexes.get(collectionName);
+        if (index == null) {
+            return;
+        }
+        index.lock.writeLock().lock();
+        try {
+            touch(index, wordId);
+            removeLocked(index, wordId);
+            addLocked(index, new Item(wordId, word, translation,
+                    DuplicateIndex.fold(word), DuplicateIndex.fold(translation)));
+            compactIfNeeded(index);
+        } finally {
+            index.lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String collectionName, String wordId) {
+        CollectionIndex index = indexes.get(collectionName);
+        if (index == null) {
+            return;
+        }
+        index.lock.writeLock().lock();
+        try {
+            touch(index, wordId);
+            removeLocked(index, wordId);
+            compactIfNeeded(index);
+        } finally {
+            index.lock.writeLock().unlock();
+        }
+    }
+
+    public void invalidate(String collectionName) {
+        indexes.remove(collectionName);
+    }
+
+    // İlk yüklemesi bitmemiş index'ler load()'a bırakılır; iki tarama aynı index'i birleştirmesin
+    @Scheduled(fixedDelayString = "${distractors.reload-interval-ms:1800000}",
+            initialDelayString = "${distractors.reload-interval-ms:1800000}")
+    public void reload() {
+        for (String collectionName : List.copyOf(indexes.keySet())) {
+            CollectionIndex index = indexes.get(collectionName);
+            if (index == null || !index.ready) {
+                continue;
+            }
+            try {
+                refresh(collectionName, index);
+            } catch (Exception e) {
+                System.err.println("Distractor index yenilenemedi (" + collectionName + "): " + e.getMessage());
+            }
+        }
+    }
+
+    /*
+     * Koleksiyonu tarar ve sonucu mevcut index nesnesine yerinde uygular (DuplicateIndex.reload
+     * ile aynı yöntem). Tarama sürerken put/remove index'e yazılmaya devam eder; bu id'lerde
+     * bellekteki hal taramanın yerine geçer, böylece silinen kelime geri gelmez, eklenen kaybolmaz.
+     */
+    private void refresh(String collectionName, CollectionIndex index) throws ExecutionException, InterruptedException {
+        index.lock.writeLock().lock();
+        try {
+            index.touchedIds.clear();
+            index.reloading = true;
+        } finally {
+            index.lock.writeLock().unlock();
+        }
+
+        CollectionIndex fresh;
+        try {
+            fresh = build(collectionName);
+        } catch (ExecutionException | InterruptedException | RuntimeException e) {
+            index.lock.writeLock().lock();
+            try {
+                index.touchedIds.clear();
+                index.reloading = false;
+            } finally {
+                index.lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        index.lock.writeLock().lock();
+        try {
+            for (String id : index.touchedIds) {
+                removeLocked(fresh, id);
+                Integer slot = index.slotById.get(id);
+                if (slot != null) {
+                    addLocked(fresh, index.slots.get(slot));
+                }
+            }
+            index.touchedIds.clear();
+            index.reloading = false;
+
+            index.slots.clear();
+            index.slots.addAll(fresh.slots);
+            index.slotById.clear();
+            index.slotById.putAll(fresh.slotById);
+            index.byWord = fresh.byWord;
+            index.byTranslation = fresh.byTranslation;
+            index.removed = fresh.removed;
+            compactIfNeeded(index);
+            index.ready = true;
+        } finally {
+            index.lock.writeLock().unlock();
+        }
+    }
+
+    // Önce çevirisi doğru cevaba, sonra kelimesi soruya benzeyenler; yetmezse rastgele doldur
+    private static List<String> distractors(CollectionIndex index, int slot, Item item, int wanted,
+                                            ThreadLocalRandom random) {
+        List<String> result = new ArrayList<>(wanted + 1);
+        Set<String> usedTranslations = new HashSet<>();
+        usedTranslations.add(item.foldedTranslation());
+
+        int[] byTranslation = index.byTranslation.similar(item.foldedTranslation(), slot, CANDIDATES, index.slots);
+        int[] byWord = index.byWord.similar(item.foldedWord(), slot, CANDIDATES, index.slots);
+        // İki listeyi sırayla harmanla: hem çeviri hem kelime benzerliği temsil edilsin
+        for (int i = 0; result.size() < wanted && (i < byTranslation.length || i < byWord.length); i++) {
+            if (i < byTranslation.length) {
+                offer(index.slots.get(byTranslation[i]), wanted, result, usedTranslations);
+            }
+            if (i < byWord.length) {
+                offer(index.slots.get(byWord[i]), wanted, result, usedTranslations);
+            }
+        }
+
+        int size = index.slots.size();
+        for (int attempts = 0; result.size() < wanted && attempts < wanted * 8 && size > 0; attempts++) {
+            offer(index.slots.get(random.nextInt(size)), wanted, result, usedTranslations);
+        }
+        Collections.shuffle(result, random);
+        return result;
+    }
+
+    private static void offer(Item other, int wanted, List<String> result, Set<String> usedTranslations) {
+        if (other != null && result.size() < wanted && !other.foldedTranslation().isEmpty()
+                && usedTranslations.add(other.foldedTranslation())) {
+            result.add(other.translation());
+        }
+    }
+
+    // Boş index tarama başlamadan kaydedilir; ilk tarama sırasındaki put/remove'lar da kaybolmaz
+    private CollectionIndex load(String collectionName) throws ExecutionException, InterruptedException {
+        CollectionIndex index = indexes.get(collectionName);
+        if (index != null && index.ready) {
+            return index;
+        }
+        synchronized (indexes) {
+            index = indexes.computeIfAbsent(collectionName, k -> new CollectionIndex());
+            if (!index.ready) {
+                refresh(collectionName, index);
+            }
+            return index;
+        }
+    }
+
+    private static void touch(CollectionIndex index, String wordId) {
+        if (index.reloading) {
+            index.touchedIds.add(wordId);
+        }
+    }
+
+    private CollectionIndex build(String collectionName) throws ExecutionException, InterruptedException {
+        long start = System.currentTimeMillis();
+        List<QueryDocumentSnapshot> documents = firestore.collection(collectionName)
+                .select("word", "translation")
+                .get().get().getDocuments();
+
+        CollectionIndex index = new CollectionIndex();
+        for (QueryDocumentSnapshot doc : documents) {
+            String word = doc.getString("word");
+            String translation = doc.getString("translation");
+            if (word == null || translation == null) {
+                continue;
+            }
+            addLocked(index, new Item(doc.getId(), word, translation,
+                    DuplicateIndex.fold(word), DuplicateIndex.fold(translation)));
+        }
+
+        System.out.println("Distractor index yüklendi: " + collectionName + " (" + index.live()
+                + " kelime, " + (System.currentTimeMillis() - start) + " ms)");
+        return index;
+    }
+
+    private static void addLocked(CollectionIndex index, Item item) {
+        if (item.word() == null || item.translation() == null) {
+            return;
+        }
+        int slot = index.slots.size();
+        index.slots.add(item);
+        index.slotById.put(item.id(), slot);
+        index.byWord.add(item.foldedWord(), slot);
+        index.byTranslation.add(item.foldedTranslation(), slot);
+    }
+
+    private static void removeLocked(CollectionIndex index, String wordId) {
+        Integer slot = index.slotById.remove(wordId);
+        if (slot != null) {
+            index.slots.set(slot, null);
+            index.removed++;
+        }
+    }
+
+    private static void compactIfNeeded(CollectionIndex index) {
+        if (index.removed <= index.slots.size() * REBUILD_RATIO) {
+            return;
+        }
+        List<Item> items = index.slots.stream().filter(Objects::nonNull).toList();
+        index.slots.clear();
+        index.slotById.clear();
+        index.byWord = new NgramIndex();
+        index.byTranslation = new NgramIndex();
+        index.removed = 0;
+        for (Item item : items) {
+            addLocked(index, item);
+        }
+    }
+
+    /**
+     * Bigram ters index'i: her bigram için onu içeren slotların listesi. Benzerlik,
+     * ortak bigram sayısı üzerinden Jaccard katsayısıdır. Çok yaygın bigram'lar
+     * (örn. "e$") aday üretmede atlanır; sorgu maliyeti kelime uzunluğuyla sınırlı kalır.
+     */
+    static final class NgramIndex {
+
+        private static final double COMMON_GRAM_RATIO = 0.05;
+        private static final int COMMON_GRAM_MIN = 256;
+
+        private final Map<Integer, int[]> postings = new HashMap<>();
+        private final Map<Integer, Integer> postingSizes = new HashMap<>();
+        private int[] gramCounts = new int[64];
+        private int size;
+
+        // Sorgu başına skor dizisi ayırmamak için thread başına yeniden kullanılan tampon
+        private static final ThreadLocal<int[]> SCORES = ThreadLocal.withInitial(() -> new int[1024]);
+
+        void add(String key, int slot) {
+            int[] grams = grams(key);
+            if (slot >= gramCounts.length) {
+                gramCounts = Arrays.copyOf(gramCounts, Math.max(slot + 1, gramCounts.length * 2));
+            }
+            gramCounts[slot] = grams.length;
+            size = Math.max(size, slot + 1);
+            for (int gram : grams) {
+                int count = postingSizes.getOrDefault(gram, 0);
+                int[] list = postings.get(gram);
+                if (list == null || count == list.length) {
+                    list = list == null ? new int[4] : Arrays.copyOf(list, count * 2);
+                    postings.put(gram, list);
+                }
+                list[count] = slot;
+                postingSizes.put(gram, count + 1);
+            }
+        }
+
+        // key'e en benzer (exclude hariç) en fazla limit canlı slot, benzerlik sırasına göre
+        <T> int[] similar(String key, int exclude, int limit, List<T> slots) {
+            int[] grams = grams(key);
+            if (grams.length == 0) {
+                return new int[0];
+            }
+            int[] scores = SCORES.get();
+            if (scores.length < size) {
+                scores = new int[Math.max(size, scores.length * 2)];
+                SCORES.set(scores);
+            }
+
+            int commonLimit = Math.max(COMMON_GRAM_MIN, (int) (size * COMMON_GRAM_RATIO));
+            int[] touched = new int[64];
+            int touchedCount = 0;
+            for (int gram : grams) {
+                int count = postingSizes.getOrDefault(gram, 0);
+                if (count == 0 || (count > commonLimit && grams.length > 1)) {
+                    continue;
+                }
+                int[] list = postings.get(gram);
+                for (int i = 0; i < count; i++) {
+                    int slot = list[i];
+                    if (scores[slot]++ == 0) {
+                        if (touchedCount == touched.length) {
+                            touched = Arrays.copyOf(touched, touchedCount * 2);
+                        }
+                        touched[touchedCount++] = slot;
+                    }
+                }
+            }
+
+            // Küçük sabit boyutlu top-k (ekleme sıralaması)
+            int[] best = new int[limit];
+            double[] bestScore = new double[limit];
+            int found = 0;
+            for (int t = 0; t < touchedCount; t++) {
+                int slot = touched[t];
+                int shared = scores[slot];
+                scores[slot] = 0;
+                if (slot == exclude || slots.get(slot) == null) {
+                    continue;
+                }
+                double jaccard = shared / (double) (grams.length + gramCounts[slot] - shared);
+                if (found == limit && jaccard <= bestScore[limit - 1]) {
+                    continue;
+                }
+                int pos = found < limit ? found++ : limit - 1;
+                while (pos > 0 && bestScore[pos - 1] < jaccard) {
+                    best[pos] = best[pos - 1];
+                    bestScore[pos] = bestScore[pos - 1];
+                    pos--;
+                }
+                best[pos] = slot;
+                bestScore[pos] = jaccard;
+            }
+            return Arrays.copyOf(best, found);
+        }
+
+        // "gato" -> {^g, ga, at, to, o$} (tekrarlar çıkarılmış)
+        private static int[] grams(String key) {
+            if (key.isEmpty()) {
+                return new int[0];
+            }
+            int[] grams = new int[key.length() + 1];
+            char previous = '^';
+            for (int i = 0; i < key.length(); i++) {
+                char c = key.charAt(i);
+                grams[i] = (previous << 16) | c;
+                previous = c;
+            }
+            grams[key.length()] = (previous << 16) | '$';
+            return Arrays.stream(grams).distinct().toArray();
+        }
+    }
+}
@@ -0,0 +1,373 @@
+package com.languagelearning.service;
+
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.regex.Pattern;
+
+/**
+ * Koleksiyon başına normalize edilmiş (küçük harf, aksansız) word + translation anahtarları.
+ * Bloom filtresi "kesinlikle yok" cevabını birkaç bit okumasıyla verir; pozitifte
+ * kesin hash index'e bakılır. Index bir kez yüklendikten sonra addWord Firestore'a sormaz.
+ */
+@Service
+public class DuplicateIndex {
+
+    // Eşzamanlı eklemede anahtar Firestore id'si gelene kadar bununla rezerve edilir
+    static final String PENDING = "";
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private static final class CollectionIndex {
+        BloomFilter bloom;
+        final Map<String, String> idByKey = new HashMap<>();
+        final Map<String, String> keyById = new HashMap<>();
+        int removedSinceRebuild;
+        // Yeniden yükleme sırasında değişen anahtar/id'ler; eski tarama sonucu bunları ezmemeli
+        final Set<String> touchedKeys = new HashSet<>();
+        final Set<String> touchedIds = new HashSet<>();
+        boolean reloading;
+    }
+
+    private final Firestore firestore;
+    private final Map<String, CollectionIndex> indexes = new ConcurrentHashMap<>();
+
+    @Autowired
+    public DuplicateIndex(@Lazy Firestore firestore) {
+        this.firestore = firestore;
+    }
+
+    // "  Canción " + "Song" -> "cancion\u0000song"
+    public static String normalizedKey(String word, String translation) {
+        return fold(word) + '\u0000' + fold(translation);
+    }
+
+    static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        String stripped = MARKS.matcher(decomposed).replaceAll("");
+        return SPACES.matcher(stripped.toLowerCase(Locale.ROOT).trim()).replaceAll(" ");
+    }
+
+    /**
+     * Anahtar boştaysa rezerve eder ve null döndürür; doluysa mevcut kelimenin id'sini
+     * (ya da eşzamanlı bir ekleme sürüyorsa PENDING) döndürür.
+     */
+    public String reserve(String collectionName, String key) throws ExecutionException, InterruptedException {
+        CollectionIndex index = load(collectionName);
+        synchronized (index) {
+            if (index.bloom.mightContain(key)) {
+                String existing = index.idByKey.get(key);
+                if (existing != null) {
+                    return existing;
+                }
+            }
+            index.idByKey.put(key, PENDING);
+            touch(index, key, null);
+            index.bloom.put(key);
+            rebuildBloomIfStale(index);
+            return null;
+        }
+    }
+
+    public void commit(String collectionName, String key, String wordId) {
+        CollectionIndex index = indexes.get(collectionName);
+        if (index == null) {
+            return;
+        }
+        synchronized (index) {
+            index.idByKey.put(key, wordId);
+            index.keyById.put(wordId, key);
+            touch(index, key, wordId);
+            index.notifyAll();
+        }
+    }
+
+    public void release(String collectionName, String key) {
+        CollectionIndex index = indexes.get(collectionName);
+        if (index == null) {
+            return;
+        }
+        synchronized (index) {
+            if (PENDING.equals(index.idByKey.get(key))) {
+                index.idByKey.remove(key);
+                touch(index, key, null);
+                index.removedSinceRebuild++;
+                index.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Anahtar PENDING ise eşzamanlı eklemenin bitmesini en fazla timeoutMs bekler.
+     * Kazanan eklemenin id'sini, ekleme başarısız olduysa null, süre dolduysa PENDING döndürür.
+     */
+    public String awaitCommit(String collectionName, String key, long timeoutMs) throws InterruptedException {
+        CollectionIndex index = indexes.get(collectionName);
+        if (index == null) {
+            return null;
+        }
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        synchronized (index) {
+            String id;
+            while (PENDING.equals(id = index.idByKey.get(key))) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return PENDING;
+                }
+                index.wait(remaining);
+            }
+            return id;
+        }
+    }
+
+    public void update(String collectionName, String wordId, String word, String translation) {
+        CollectionIndex index = indexes.get(collectionName);
+        if (index == null) {
+            return;
+        }
+        String key = normalizedKey(word, translation);
+        synchronized (index) {
+            removeLocked(index, wordId);
+            index.idByKey.putIfAbsent(key, wordId);
+            index.keyById.put(wordId, key);
+            touch(index, key, wordId);
+            index.bloom.put(key);
+            rebuildBloomIfStale(index);
+        }
+    }
+
+    public void remove(String collectionName, String wordId) {
+        CollectionIndex index = indexes.get(collectionName);
+        if (index == null) {
+            return;
+        }
+        synchronized (index) {
+            removeLocked(index, wordId);
+            rebuildBloomIfStale(index);
+        }
+    }
+
+    // Toplu deduplikasyon sonrası index'i sıfırdan kur
+    public void invalidate(String collectionName) {
+        indexes.remove(collectionName);
+    }
+
+    /*
+     * Uygulama dışından yapılan eklemeleri de yakalamak için yüklü index'leri tazele.
+     * Tarama sürerken yapılan rezervasyon/commit/silmeler bellekteki index'e yazılmaya devam
+     * eder; tarama bitince bu anahtar ve id'lerde bellekteki hal taramanın yerine geçer ve
+     * henüz commit edilmemiş (PENDING) rezervasyonlar korunur. Index nesnesi değiştirilmez,
+     * içeriği yerinde yenilenir.
+     */
+    @Scheduled(fixedDelayString = "${duplicates.reload-interval-ms:1800000}",
+            initialDelayString = "${duplicates.reload-interval-ms:1800000}")
+    public void reload() {
+        for (String collectionName : List.copyOf(indexes.keySet())) {
+            CollectionIndex index = indexes.get(collectionName);
+            if (index == null) {
+                continue;
+            }
+            synchronized (index) {
+                index.touchedKeys.clear();
+                index.touchedIds.clear();
+                index.reloading = true;
+            }
+            CollectionIndex fresh = null;
+            try {
+                fresh = build(collectionName);
+            } catch (Exception e) {
+                System.err.println("Duplicate index yenilenemedi (" + collectionName + "): " + e.getMessage());
+            }
+            synchronized (index) {
+                if (fresh != null) {
+                    merge(index, fresh);
+                }
+                index.touchedKeys.clear();
+                index.touchedIds.clear();
+                index.reloading = false;
+            }
+        }
+    }
+
+    private static void merge(CollectionIndex index, CollectionIndex fresh) {
+        for (String key : index.touchedKeys) {
+            String id = index.idByKey.get(key);
+            if (id == null) {
+                fresh.idByKey.remove(key);
+            } else {
+                fresh.idByKey.put(key, id);
+            }
+        }
+        for (String id : index.touchedIds) {
+            String key = index.keyById.get(id);
+            if (key == null) {
+                fresh.keyById.remove(id);
+            } else {
+                fresh.keyById.put(id, key);
+            }
+        }
+        // Taramadan önce başlamış, henüz Firestore id'si gelmemiş eklemeler
+        index.idByKey.forEach((key, id) -> {
+            if (PENDING.equals(id)) {
+                fresh.idByKey.putIfAbsent(key, id);
+            }
+        });
+
+        index.idByKey.clear();
+        index.idByKey.putAll(fresh.idByKey);
+        index.keyById.clear();
+        index.keyById.putAll(fresh.keyById);
+        index.bloom = BloomFilter.of(index.idByKey.keySet(), index.idByKey.size());
+        index.removedSinceRebuild = 0;
+    }
+
+    private CollectionIndex load(String collectionName) throws ExecutionException, InterruptedException {
+        CollectionIndex index = indexes.get(collectionName);
+        if (index != null) {
+            return index;
+        }
+        synchronized (indexes) {
+            index = indexes.get(collectionName);
+            if (index == null) {
+                index = build(collectionName);
+                indexes.put(collectionName, index);
+            }
+            return index;
+        }
+    }
+
+    private CollectionIndex build(String collectionName) throws ExecutionException, InterruptedException {
+        long start = System.currentTimeMillis();
+        // Sadece anahtar için gereken alanları oku
+        List<QueryDocumentSnapshot> documents = firestore.collection(collectionName)
+                .select("word", "translation")
+                .get().get().getDocuments();
+
+        CollectionIndex index = new CollectionIndex();
+        for (QueryDocumentSnapshot doc : documents) {
+            String key = normalizedKey(doc.getString("word"), doc.getString("translation"));
+            // Mevcut kopyalarda ilk görülen kelime kanonik kabul edilir
+            index.idByKey.putIfAbsent(key, doc.getId());
+            index.keyById.put(doc.getId(), key);
+        }
+        index.bloom = BloomFilter.of(index.idByKey.keySet(), index.idByKey.size());
+
+        System.out.println("Duplicate index yüklendi: " + collectionName + " (" + index.idByKey.size()
+                + " anahtar, " + (System.currentTimeMillis() - start) + " ms)");
+        return index;
+    }
+
+    private static void touch(CollectionIndex index, String key, String wordId) {
+        if (!index.reloading) {
+            return;
+        }
+        if (key != null) {
+            index.touchedKeys.add(key);
+        }
+        if (wordId != null) {
+            index.touchedIds.add(wordId);
+        }
+    }
+
+    private static void removeLocked(CollectionIndex index, String wordId) {
+        String oldKey = index.keyById.remove(wordId);
+        touch(index, oldKey, wordId);
+        if (oldKey != null && wordId.equals(index.idByKey.get(oldKey))) {
+            index.idByKey.remove(oldKey);
+            index.removedSinceRebuild++;
+        }
+    }
+
+    // Bloom filtresinden silinemez; silinen/taşan anahtarlar yanlış pozitifleri artırınca yeniden kur
+    private static void rebuildBloomIfStale(CollectionIndex index) {
+        if (index.removedSinceRebuild > index.idByKey.size() / 4 || index.bloom.isSaturated(index.idByKey.size())) {
+            index.bloom = BloomFilter.of(index.idByKey.keySet(), index.idByKey.size());
+            index.removedSinceRebuild = 0;
+        }
+    }
+
+    /**
+     * Sabit boyutlu Bloom filtresi (~%1 yanlış pozitif, 7 hash).
+     * Hash'ler tek bir 64-bit FNV-1a değerinden çift hash yöntemiyle türetilir.
+     */
+    static final class BloomFilter {
+
+        private static final int HASHES = 7;
+        private static final int BITS_PER_KEY = 10;
+        private static final int MIN_BITS = 1024;
+
+        private final long[] words;
+        private final int bitCount;
+        private final int capacity;
+
+        private BloomFilter(int capacity) {
+            // Büyüme payı: kapasitenin iki katına kadar kabul edilebilir hata oranı
+            this.capacity = Math.max(capacity * 2, MIN_BITS / BITS_PER_KEY);
+            long bits = Math.max((long) this.capacity * BITS_PER_KEY, MIN_BITS);
+            this.bitCount = (int) Math.min(bits, Integer.MAX_VALUE - 63);
+            this.words = new long[(bitCount + 63) / 64];
+        }
+
+        static BloomFilter of(Iterable<String> keys, int expected) {
+            BloomFilter filter = new BloomFilter(expected);
+            for (String key : keys) {
+                filter.put(key);
+            }
+            return filter;
+        }
+
+        void put(String key) {
+            long hash = hash(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= HASHES; i++) {
+                int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % bitCount;
+                words[bit >>> 6] |= 1L << bit;
+            }
+        }
+
+        boolean mightContain(String key) {
+            long hash = hash(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= HASHES; i++) {
+                int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % bitCount;
+                if ((words[bit >>> 6] & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean isSaturated(int keys) {
+            return keys > capacity;
+        }
+
+        private static long hash(String key) {
+            long h = 0xcbf29ce484222325L;
+            for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+                h ^= b & 0xff;
+                h *= 0x100000001b3L;
+            }
+            return h;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.languagelearning.service;
+
+// Aynı (normalize edilmiş) word + translation çifti koleksiyonda zaten var
+public class DuplicateWordException extends RuntimeException {
+
+    private final String existingId;
+
+    public DuplicateWordException(String word, String existingId) {
+        super("Bu kelime zaten mevcut: " + word);
+        this.existingId = existingId;
+    }
+
+    public String getExistingId() {
+        return existingId;
+    }
+}
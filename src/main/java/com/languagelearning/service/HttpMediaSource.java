@@ -0,0 +1,147 @@
+package com.languagelearning.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/*
+ * Word.audioUrl / imageUrl adreslerinden doğrudan dosyaya indirir.
+ *
+ * İç ağ adresi kontrolü (checkPublic) en iyi çaba düzeyindedir: host burada çözülüp doğrulanır,
+ * HttpClient ise bağlanırken adı yeniden çözer ve bağlandığı adresi doğrulatmanın bir yolu yoktur
+ * (özel DNS çözücü desteği yok). TTL'i kısa tutan bir "DNS rebinding" alan adı kontrolden geçip
+ * iç ağa kör istek attırabilir. Adresler kullanıcı girdisi olduğundan, üretimde uygulamanın iç
+ * ağlara (169.254.169.254, özel aralıklar, localhost servisleri) çıkışı ağ/egress kurallarıyla
+ * da kapatılmalıdır; bu sınıf o katmanın yerini tutmaz.
+ */
+public class HttpMediaSource implements MediaSource {
+
+    private static final int MAX_REDIRECTS = 5;
+
+    // Yönlendirmeler elle izlenir; her adımın hedefi ayrıca doğrulanır
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+
+    private final long maxBytes;
+
+    public HttpMediaSource(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public String fetch(String url, Path target) throws IOException {
+        URI uri = URI.create(url);
+        try {
+            for (int redirects = 0; redirects <= MAX_REDIRECTS; redirects++) {
+                checkPublic(uri);
+
+                HttpRequest request = HttpRequest.newBuilder(uri)
+                        .timeout(Duration.ofSeconds(20))
+                        .GET()
+                        .build();
+                HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                try (InputStream body = response.body()) {
+                    int status = response.statusCode();
+                    if (status == 301 || status == 302 || status == 303 || status == 307 || status == 308) {
+                        String location = response.headers().firstValue("Location")
+                                .orElseThrow(() -> new IOException("Location başlığı olmayan yönlendirme: " + url));
+                        uri = uri.resolve(location);
+                        continue;
+                    }
+                    if (status != 200) {
+                        throw new IOException("Medya indirilemedi (" + status + "): " + url);
+                    }
+                    long declared = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+                    if (declared > maxBytes) {
+                        throw new IOException("Medya çok büyük (" + declared + " B): " + url);
+                    }
+                    copyLimited(body, target, url);
+                    return response.headers().firstValue("Content-Type").orElse(null);
+                }
+            }
+            throw new IOException("Çok fazla yönlendirme: " + url);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Medya indirme kesildi: " + url, e);
+        }
+    }
+
+    // Content-Length olmayan / yanlış bildiren cevaplar için sınır akış sırasında da uygulanır
+    private void copyLimited(InputStream body, Path target, String url) throws IOException {
+        byte[] buffer = new byte[16 * 1024];
+        long total = 0;
+        try (OutputStream out = Files.newOutputStream(target)) {
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                total += read;
+                if (total > maxBytes) {
+                    throw new IOException("Medya çok büyük (>" + maxBytes + " B): " + url);
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+    }
+
+    // Sunucunun iç ağa (metadata servisi, localhost, özel ağlar) istek atmasını engelle (SSRF).
+    // Bağlantı anındaki ikinci DNS çözümlemesini kapsamaz; bkz. sınıf açıklaması
+    private static void checkPublic(URI uri) throws IOException {
+        if (!"http".equalsIgnoreCase(uri.getScheme()) && !"https".equalsIgnoreCase(uri.getScheme())) {
+            throw new IOException("Desteklenmeyen medya adresi: " + uri);
+        }
+        String host = uri.getHost();
+        if (host == null || host.isBlank()) {
+            throw new IOException("Medya adresinde host yok: " + uri);
+        }
+        InetAddress[] addresses;
+        try {
+            addresses = InetAddress.getAllByName(host);
+        } catch (UnknownHostException e) {
+            throw new IOException("Medya host'u çözülemedi: " + host, e);
+        }
+        for (InetAddress address : addresses) {
+            if (isInternal(address)) {
+                throw new IOException("İç ağ adresine medya isteği reddedildi: " + uri);
+            }
+        }
+    }
+
+    private static boolean isInternal(InetAddress address) {
+        if (address.isAnyLocalAddress() || address.isLoopbackAddress() || address.isLinkLocalAddress()
+                || address.isSiteLocalAddress() || address.isMulticastAddress()) {
+            return true;
+        }
+        byte[] bytes = address.getAddress();
+        if (address instanceof Inet6Address) {
+            // fc00::/7 (unique local) ve IPv4-mapped adresler
+            if ((bytes[0] & 0xfe) == 0xfc) {
+                return true;
+            }
+            boolean mapped = bytes[10] == (byte) 0xff && bytes[11] == (byte) 0xff;
+            for (int i = 0; mapped && i < 10; i++) {
+                mapped = bytes[i] == 0;
+            }
+            if (mapped) {
+                try {
+                    return isInternal(InetAddress.getByAddress(new byte[]{bytes[12], bytes[13], bytes[14], bytes[15]}));
+                } catch (UnknownHostException e) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        // 100.64.0.0/10 (carrier-grade NAT) ve 0.0.0.0/8
+        return ((bytes[0] & 0xff) == 100 && (bytes[1] & 0xc0) == 64) || bytes[0] == 0;
+    }
+}
@@ -0,0 +1,320 @@
+package com.languagelearning.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.languagelearning.model.Word;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Koleksiyon başına canlı güncelleme yayını (Server-Sent Events). Mutasyonlar bekleyen
+ * bir gruba yazılır; zamanlanmış flush aynı kelimeye ait olayları birleştirip istatistik
+ * farklarını toplar, grubu bir kez serileştirir ve tüm abonelerin sınırlı tamponlarına
+ * koyar. Tamponu dolan (yavaş) abone bağlantısı kapatılır; tarayıcı yeniden bağlanır.
+ * Boştaki aboneler thread tutmaz, gönderim küçük sabit bir havuzdan yapılır; süresi içinde
+ * bitmeyen gönderim (live.send-timeout-ms) aboneyi kapatır ve göndericiyi serbest bırakır.
+ * Flush kendi zamanlayıcı thread'inde çalışır; Spring'in paylaşılan @Scheduled thread'indeki
+ * uzun Firestore taramalarının arkasında beklemez, takılan bir abone de o işleri durdurmaz.
+ */
+@Service
+public class LiveUpdateService {
+
+    private static final Set<ResponseBodyEmitter.DataWithMediaType> HEARTBEAT =
+            SseEmitter.event().comment("ping").build();
+
+    private final ObjectMapper objectMapper;
+    private final long emitterTimeoutMs;
+    private final int bufferSize;
+    private final long heartbeatIntervalMs;
+    private final long sendTimeoutNanos;
+    private final long flushIntervalMs;
+
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Map<String, Batch> pending = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastSent = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor senders;
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "live-flush");
+        t.setDaemon(true);
+        return t;
+    });
+    // completeWithError, takılan send()'in tuttuğu emitter kilidini bekleyebilir; flush thread'i beklemesin
+    private final ExecutorService closers = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "live-closer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Flush aralığında biriken olaylar; aynı kelimenin sonraki olayı öncekinin yerini alır
+    private static final class Batch {
+        final Map<String, Long> stats = new LinkedHashMap<>();
+        final Map<String, Map<String, Object>> words = new LinkedHashMap<>();
+    }
+
+    private final class Subscriber {
+        final String collectionName;
+        final SseEmitter emitter;
+        final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> buffer;
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile boolean closed;
+        // Süren gönderim; 'this' üzerinde senkronize (zaman aşımında doğru thread'i kesmek için)
+        Thread sender;
+        long sendStartedNanos;
+
+        Subscriber(String collectionName, SseEmitter emitter) {
+            this.collectionName = collectionName;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+
+    @Autowired
+    public LiveUpdateService(ObjectMapper objectMapper,
+                             @Value("${live.emitter-timeout-ms:1800000}") long emitterTimeoutMs,
+                             @Value("${live.subscriber-buffer:32}") int bufferSize,
+                             @Value("${live.heartbeat-interval-ms:30000}") long heartbeatIntervalMs,
+                             @Value("${live.sender-threads:4}") int senderThreads,
+                             @Value("${live.send-timeout-ms:5000}") long sendTimeoutMs,
+                             @Value("${live.flush-interval-ms:250}") long flushIntervalMs) {
+        this.objectMapper = objectMapper;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.bufferSize = bufferSize;
+        this.heartbeatIntervalMs = heartbeatIntervalMs;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        this.flushIntervalMs = flushIntervalMs;
+        this.senders = new ThreadPoolExecutor(
+                senderThreads, senderThreads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "live-sender");
+                    t.setDaemon(true);
+                    return t;
+                });
+        this.senders.allowCoreThreadTimeOut(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher.scheduleWithFixedDelay(() -> {
+            try {
+                flush();
+            } catch (Exception e) {
+                // Tek bir hata zamanlamayı durdurmasın
+                System.err.println("Canlı güncelleme flush hatası: " + e.getMessage());
+            }
+        }, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+        for (Set<Subscriber> set : subscribers.values()) {
+            for (Subscriber subscriber : set) {
+                subscriber.closed = true;
+                subscriber.emitter.complete();
+            }
+        }
+        senders.shutdownNow();
+        closers.shutdownNow();
+    }
+
+    public SseEmitter subscribe(String collectionName) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(collectionName, emitter);
+        emitter.onCompletion(() -> close(subscriber));
+        emitter.onTimeout(() -> close(subscriber));
+        emitter.onError(e -> close(subscriber));
+
+        subscribers.computeIfAbsent(collectionName, k -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        // Bağlantı açılır açılmaz proxy'lerin cevabı tamponlamaması için ilk satırı gönder
+        enqueue(subscriber, HEARTBEAT);
+        return emitter;
+    }
+
+    // Dinleyen yoksa ek okuma yapmaya gerek yok (örn. silmeden önce kelimeyi okumak)
+    public boolean hasSubscribers(String collectionName) {
+        Set<Subscriber> set = subscribers.get(collectionName);
+        return set != null && !set.isEmpty();
+    }
+
+    /**
+     * Bir kelime olayı yayınlar. statsDelta getStatistics alanlarına göre farklardır
+     * (total, learned, learning, unknown, favorites); word silme olayında null olabilir.
+     */
+    public void publish(String collectionName, String type, String wordId, Word word, Map<String, Long> statsDelta) {
+        if (!hasSubscribers(collectionName)) {
+            return;
+        }
+        pending.compute(collectionName, (key, existing) -> {
+            Batch batch = existing != null ? existing : new Batch();
+            statsDelta.forEach((field, delta) -> batch.stats.merge(field, delta, Long::sum));
+
+            Map<String, Object> event = new LinkedHashMap<>();
+            event.put("type", type);
+            event.put("id", wordId);
+            if (word != null) {
+                event.put("word", word);
+            }
+            batch.words.remove(wordId);
+            batch.words.put(wordId, event);
+            return batch;
+        });
+    }
+
+    void flush() {
+        long now = System.currentTimeMillis();
+        expireStalledSends();
+        for (Map.Entry<String, Set<Subscriber>> entry : subscribers.entrySet()) {
+            String collectionName = entry.getKey();
+            Set<Subscriber> set = entry.getValue();
+            Batch batch = pending.remove(collectionName);
+
+            Set<ResponseBodyEmitter.DataWithMediaType> message = null;
+            if (batch != null) {
+                message = render(batch);
+            } else if (now - lastSent.getOrDefault(collectionName, 0L) >= heartbeatIntervalMs) {
+                // Kopmuş bağlantıları tespit etmek ve proxy zaman aşımlarını önlemek için
+                message = HEARTBEAT;
+            }
+            if (message == null || set.isEmpty()) {
+                continue;
+            }
+
+            lastSent.put(collectionName, now);
+            for (Subscriber subscriber : set) {
+                enqueue(subscriber, message);
+            }
+        }
+    }
+
+    /*
+     * Soketi okumayan bir istemciye send() bloklanır ve gönderici thread'i tutar; birkaç böyle
+     * abone tüm havuzu kilitleyebilir. Süresi aşan gönderimin abonesi kapatılır, thread'i
+     * kesilir ve emitter hata ile tamamlanır; container bağlantıyı kapatınca yazma da sonlanır.
+     */
+    private void expireStalledSends() {
+        long nowNanos = System.nanoTime();
+        for (Set<Subscriber> set : subscribers.values()) {
+            for (Subscriber subscriber : set) {
+                synchronized (subscriber) {
+                    if (subscriber.sender == null || nowNanos - subscriber.sendStartedNanos < sendTimeoutNanos) {
+                        continue;
+                    }
+                    System.out.println("SSE gönderimi zaman aşımına uğradı, abone kapatıldı: " + subscriber.collectionName);
+                    close(subscriber);
+                    subscriber.sender.interrupt();
+                }
+                try {
+                    closers.execute(() -> {
+                        try {
+                            subscriber.emitter.completeWithError(new TimeoutException("SSE send timed out"));
+                        } catch (Exception ignored) {
+                            // Bağlantı zaten kapanmış
+                        }
+                    });
+                } catch (RejectedExecutionException ignored) {
+                    // Kapanış sırasında
+                }
+            }
+        }
+    }
+
+    private Set<ResponseBodyEmitter.DataWithMediaType> render(Batch batch) {
+        // Net etkisi sıfır olan farkları gönderme (örn. iki kez favori değiştirme)
+        batch.stats.values().removeIf(delta -> delta == 0);
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("stats", batch.stats);
+        payload.put("words", batch.words.values());
+        try {
+            // Grup bir kez serileştirilir, tüm abonelere aynı byte'lar gider
+            String json = objectMapper.writeValueAsString(payload);
+            return SseEmitter.event().name("batch").data(json, MediaType.APPLICATION_JSON).build();
+        } catch (JsonProcessingException e) {
+            System.err.println("Canlı güncelleme serileştirilemedi: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, Set<ResponseBodyEmitter.DataWithMediaType> message) {
+        if (subscriber.closed) {
+            return;
+        }
+        if (!subscriber.buffer.offer(message)) {
+            System.out.println("Yavaş SSE abonesi düşürüldü: " + subscriber.collectionName);
+            close(subscriber);
+        }
+        scheduleDrain(subscriber);
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    // Aboneye ait mesajları sırayla gönder; her abone için aynı anda en fazla bir gönderici
+    private void drain(Subscriber subscriber) {
+        try {
+            Set<ResponseBodyEmitter.DataWithMediaType> message;
+            while (!subscriber.closed && (message = subscriber.buffer.poll()) != null) {
+                synchronized (subscriber) {
+                    subscriber.sender = Thread.currentThread();
+                    subscriber.sendStartedNanos = System.nanoTime();
+                }
+                try {
+                    subscriber.emitter.send(message);
+                } finally {
+                    synchronized (subscriber) {
+                        subscriber.sender = null;
+                    }
+                }
+            }
+        } catch (Exception e) {
+            close(subscriber);
+        } finally {
+            // Zaman aşımı kesmesi havuz thread'inde kalıp sonraki aboneyi etkilemesin
+            Thread.interrupted();
+            if (subscriber.closed) {
+                subscriber.buffer.clear();
+                completeQuietly(subscriber);
+            }
+            subscriber.draining.set(false);
+        }
+        // Drain biterken eklenen mesaj kaçmasın
+        if (!subscriber.closed && !subscriber.buffer.isEmpty()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    // Emitter'ı kapatma işi gönderici thread'de yapılır; flush thread'i yavaş soketi beklemez
+    private void close(Subscriber subscriber) {
+        subscriber.closed = true;
+        Set<Subscriber> set = subscribers.get(subscriber.collectionName);
+        if (set != null) {
+            set.remove(subscriber);
+        }
+    }
+
+    private static void completeQuietly(Subscriber subscriber) {
+        try {
+            subscriber.emitter.complete();
+        } catch (Exception ignored) {
+            // Bağlantı zaten kapanmış
+        }
+    }
+}
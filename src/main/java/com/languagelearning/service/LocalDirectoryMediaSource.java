@@ -0,0 +1,32 @@
+package com.languagelearning.service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+// Uzak origin yerine yerel bir dizinden okur: URL'nin son path parçası dosya adı olarak kullanılır
+public class LocalDirectoryMediaSource implements MediaSource {
+
+    private final Path directory;
+
+    public LocalDirectoryMediaSource(Path directory) {
+        this.directory = directory.toAbsolutePath().normalize();
+    }
+
+    @Override
+    public String fetch(String url, Path target) throws IOException {
+        String path = URI.create(url).getPath();
+        String fileName = path == null ? url : path.substring(path.lastIndexOf('/') + 1);
+
+        Path source = directory.resolve(fileName).normalize();
+        if (fileName.isEmpty() || !source.startsWith(directory) || !Files.isRegularFile(source)) {
+            throw new NoSuchFileException(source.toString());
+        }
+
+        Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+        return Files.probeContentType(source);
+    }
+}
@@ -0,0 +1,421 @@
+package com.languagelearning.service;
+
+import com.google.cloud.firestore.DocumentSnapshot;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+
+/**
+ * Kelime ses/görsel dosyaları için disk üzerinde, boyutu sınırlı LRU cache.
+ * Dosyalar bir kez indirilir; sonraki istekler doğrudan diskten (zero-copy) sunulur.
+ */
+@Service
+public class MediaCacheService {
+
+    public enum Kind {
+        AUDIO("audioUrl"),
+        IMAGE("imageUrl");
+
+        // SVG script içerebildiği için görsellerde yalnızca raster tipler
+        private static final Set<String> RASTER_IMAGES = Set.of(
+                "image/png", "image/jpeg", "image/gif", "image/webp", "image/avif", "image/bmp");
+
+        private final String field;
+
+        Kind(String field) {
+            this.field = field;
+        }
+
+        public String field() {
+            return field;
+        }
+
+        public boolean accepts(String contentType) {
+            if (contentType == null) {
+                return false;
+            }
+            return this == AUDIO ? contentType.startsWith("audio/") : RASTER_IMAGES.contains(contentType);
+        }
+    }
+
+    public record CachedMedia(Path path, long size, String contentType, String url) {}
+
+    private static final String META_SUFFIX = ".meta";
+    private static final String TEMP_PREFIX = "fetch-";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final MediaSource mediaSource;
+    private final Path cacheDirectory;
+    private final long maxBytes;
+
+    // Erişim sırasına göre LRU; tüm erişimler 'this' üzerinde senkronize
+    private final LinkedHashMap<String, CachedMedia> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes = 0;
+
+    // Aynı dosya için eşzamanlı indirmeleri tekilleştir
+    private final Map<String, CompletableFuture<CachedMedia>> inFlight = new ConcurrentHashMap<>();
+
+    // Tomcat sendfile dosyayı handler döndükten sonra adıyla açar; evict edilen veri hemen silinmez
+    private static final long DELETE_GRACE_SECONDS = 30;
+
+    private final ScheduledExecutorService deleter = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "media-cache-delete");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Set<PendingDelete> pendingDeletes = ConcurrentHashMap.newKeySet();
+
+    private record PendingDelete(Path path, Object fileKey) {}
+
+    private final ThreadPoolExecutor prefetchExecutor = new ThreadPoolExecutor(
+            2, 2, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(100),
+            r -> {
+                Thread t = new Thread(r, "media-prefetch");
+                t.setDaemon(true);
+                return t;
+            },
+            new ThreadPoolExecutor.DiscardPolicy());
+
+    @Autowired
+    public MediaCacheService(MediaSource mediaSource,
+                             @Value("${media.cache.directory:${java.io.tmpdir}/languagelearn-media}") String cacheDirectory,
+                             @Value("${media.cache.max-bytes:536870912}") long maxBytes) throws IOException {
+        this.mediaSource = mediaSource;
+        this.cacheDirectory = Paths.get(cacheDirectory).toAbsolutePath();
+        this.maxBytes = maxBytes;
+        this.prefetchExecutor.allowCoreThreadTimeOut(true);
+
+        Files.createDirectories(this.cacheDirectory);
+        restoreIndex();
+        System.out.println("Media cache: " + this.cacheDirectory + " (max " + maxBytes / (1024 * 1024) + " MB, "
+                + entries.size() + " dosya geri yüklendi)");
+    }
+
+    /*
+     * Her cache dosyasının yanında bir ".meta" dosyası (key, url, içerik tipi) tutulur.
+     * Açılışta LRU bu dosyalardan, son değişiklik zamanına göre sıralanarak yeniden kurulur.
+     * Dizinde yalnızca bu cache'in oluşturduğu dosyalara (meta'sı olan veriler, yarım kalmış
+     * indirmeler) dokunulur; alt dizinler ve tanınmayan dosyalar olduğu gibi bırakılır.
+     */
+    private void restoreIndex() throws IOException {
+        List<CachedMedia> restored = new ArrayList<>();
+        Map<Path, String> keys = new HashMap<>();
+        try (Stream<Path> files = Files.list(cacheDirectory)) {
+            for (Path file : files.toList()) {
+                if (!Files.isRegularFile(file)) {
+                    continue;
+                }
+                String name = file.getFileName().toString();
+                if (name.startsWith(TEMP_PREFIX) && name.endsWith(TEMP_SUFFIX)) {
+                    Files.deleteIfExists(file);
+                } else if (name.endsWith(META_SUFFIX)) {
+                    CachedMedia media = readMeta(file, keys);
+                    if (media != null) {
+                        restored.add(media);
+                    }
+                }
+            }
+        }
+
+        restored.sort(Comparator.comparing(MediaCacheService::lastModified));
+        for (CachedMedia media : restored) {
+            store(keys.get(media.path()), media);
+        }
+    }
+
+    // Okunamayan, verisi olmayan veya tipi artık kabul edilmeyen kayıtlar silinir
+    private CachedMedia readMeta(Path metaFile, Map<Path, String> keys) {
+        try {
+            Properties meta = new Properties();
+            try (Reader reader = Files.newBufferedReader(metaFile, StandardCharsets.UTF_8)) {
+                meta.load(reader);
+            }
+            String key = meta.getProperty("key");
+            String url = meta.getProperty("url");
+            String contentType = meta.getProperty("contentType");
+            Kind kind = key == null ? null : kindOf(key);
+            Path data = key == null ? null : cacheDirectory.resolve(fileName(key));
+
+            if (kind != null && url != null && kind.accepts(contentType)
+                    && metaFile.equals(metaPath(data)) && Files.isRegularFile(data)) {
+                keys.put(data, key);
+                return new CachedMedia(data, Files.size(data), contentType, url);
+            }
+            if (data != null && metaFile.equals(metaPath(data))) {
+                Files.deleteIfExists(data);
+            }
+            Files.deleteIfExists(metaFile);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Cache kaydı okunamadı: " + metaFile + " - " + e.getMessage());
+        }
+        return null;
+    }
+
+    private void writeMeta(String key, CachedMedia media) throws IOException {
+        Properties meta = new Properties();
+        meta.setProperty("key", key);
+        meta.setProperty("url", media.url());
+        meta.setProperty("contentType", media.contentType());
+
+        Path temp = Files.createTempFile(cacheDirectory, TEMP_PREFIX, TEMP_SUFFIX);
+        try {
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                meta.store(writer, null);
+            }
+            Files.move(temp, metaPath(media.path()), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        prefetchExecutor.shutdownNow();
+        // Bekleyen silmeleri şimdi yap; meta'sız veri dosyaları dizinde kalmasın
+        deleter.shutdownNow();
+        for (PendingDelete pending : List.copyOf(pendingDeletes)) {
+            runDelete(pending);
+        }
+    }
+
+    public synchronized CachedMedia getIfCached(String collectionName, String wordId, Kind kind) {
+        return entries.get(key(collectionName, wordId, kind));
+    }
+
+    // Cache'te yoksa (veya URL değiştiyse) kaynaktan indirir; eşzamanlı istekler aynı indirmeyi bekler
+    public CachedMedia get(String collectionName, String wordId, Kind kind, String url) throws IOException {
+        String key = key(collectionName, wordId, kind);
+        synchronized (this) {
+            CachedMedia cached = entries.get(key);
+            if (cached != null && cached.url().equals(url)) {
+                return cached;
+            }
+        }
+
+        CompletableFuture<CachedMedia> future = new CompletableFuture<>();
+        CompletableFuture<CachedMedia> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            CachedMedia media = download(key, kind, url);
+            future.complete(media);
+            return media;
+        } catch (IOException | RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    // Sıradaki quiz kartlarının medyasını arka planda cache'e al
+    public void prefetch(String collectionName, List<? extends DocumentSnapshot> documents) {
+        for (DocumentSnapshot doc : documents) {
+            for (Kind kind : Kind.values()) {
+                prefetch(collectionName, doc.getId(), kind, doc.getString(kind.field()));
+            }
+        }
+    }
+
+    public void prefetch(String collectionName, String wordId, Kind kind, String url) {
+        if (url == null || url.isBlank()) {
+            return;
+        }
+        synchronized (this) {
+            CachedMedia cached = entries.get(key(collectionName, wordId, kind));
+            if (cached != null && cached.url().equals(url)) {
+                return;
+            }
+        }
+        prefetchExecutor.execute(() -> {
+            try {
+                get(collectionName, wordId, kind, url);
+            } catch (Exception e) {
+                System.err.println("Medya önceden yüklenemedi: " + url + " - " + e.getMessage());
+            }
+        });
+    }
+
+    public void evict(String collectionName, String wordId) {
+        List<CachedMedia> removed = new ArrayList<>();
+        synchronized (this) {
+            for (Kind kind : Kind.values()) {
+                CachedMedia media = entries.remove(key(collectionName, wordId, kind));
+                if (media != null) {
+                    totalBytes -= media.size();
+                    removed.add(media);
+                }
+            }
+        }
+        removed.forEach(this::deleteQuietly);
+    }
+
+    private CachedMedia download(String key, Kind kind, String url) throws IOException {
+        Path target = cacheDirectory.resolve(fileName(key));
+        Path temp = Files.createTempFile(cacheDirectory, TEMP_PREFIX, TEMP_SUFFIX);
+        try {
+            String contentType = normalizeContentType(mediaSource.fetch(url, temp));
+            if (!kind.accepts(contentType)) {
+                throw new IOException("Beklenmeyen medya tipi (" + contentType + "): " + url);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            CachedMedia media = new CachedMedia(target, Files.size(target), contentType, url);
+            writeMeta(key, media);
+            store(key, media);
+            return media;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void store(String key, CachedMedia media) {
+        List<CachedMedia> evicted = new ArrayList<>();
+        synchronized (this) {
+            CachedMedia previous = entries.put(key, media);
+            if (previous != null) {
+                totalBytes -= previous.size();
+            }
+            totalBytes += media.size();
+
+            Iterator<Map.Entry<String, CachedMedia>> it = entries.entrySet().iterator();
+            while (totalBytes > maxBytes && it.hasNext()) {
+                Map.Entry<String, CachedMedia> eldest = it.next();
+                if (eldest.getKey().equals(key)) {
+                    continue;
+                }
+                it.remove();
+                totalBytes -= eldest.getValue().size();
+                evicted.add(eldest.getValue());
+            }
+        }
+        evicted.forEach(this::deleteQuietly);
+    }
+
+    /*
+     * Meta hemen silinir (kayıt artık cache'te yok), veri dosyası DELETE_GRACE_SECONDS sonra.
+     * Bu arada aynı anahtar yeniden indirilip dosya değiştirildiyse yenisine dokunulmaz.
+     */
+    private void deleteQuietly(CachedMedia media) {
+        Object fileKey;
+        try {
+            Files.deleteIfExists(metaPath(media.path()));
+            fileKey = Files.readAttributes(media.path(), BasicFileAttributes.class).fileKey();
+        } catch (NoSuchFileException e) {
+            return;
+        } catch (IOException e) {
+            System.err.println("Cache dosyası silinemedi: " + media.path() + " - " + e.getMessage());
+            return;
+        }
+        PendingDelete pending = new PendingDelete(media.path(), fileKey);
+        pendingDeletes.add(pending);
+        try {
+            deleter.schedule(() -> runDelete(pending), DELETE_GRACE_SECONDS, TimeUnit.SECONDS);
+        } catch (RejectedExecutionException e) {
+            runDelete(pending);
+        }
+    }
+
+    private void runDelete(PendingDelete pending) {
+        if (pendingDeletes.remove(pending)) {
+            deleteIfUnchanged(pending.path(), pending.fileKey());
+        }
+    }
+
+    private void deleteIfUnchanged(Path path, Object fileKey) {
+        synchronized (this) {
+            // Aynı yola yeni bir dosya taşındıysa (fileKey farklı) ve cache'teyse silme
+            try {
+                Object current = Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+                if (fileKey != null && !fileKey.equals(current)) {
+                    return;
+                }
+                if (fileKey == null && entries.values().stream().anyMatch(m -> m.path().equals(path))) {
+                    return;
+                }
+                Files.deleteIfExists(path);
+            } catch (NoSuchFileException ignored) {
+                // Zaten silinmiş
+            } catch (IOException e) {
+                System.err.println("Cache dosyası silinemedi: " + path + " - " + e.getMessage());
+            }
+        }
+    }
+
+    private static CachedMedia await(CompletableFuture<CachedMedia> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Medya indirme beklenirken kesildi", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    // "audio/mpeg; charset=..." -> "audio/mpeg"
+    private static String normalizeContentType(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        int semicolon = contentType.indexOf(';');
+        String type = semicolon < 0 ? contentType : contentType.substring(0, semicolon);
+        return type.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String key(String collectionName, String wordId, Kind kind) {
+        return collectionName + "/" + wordId + "/" + kind.name().toLowerCase();
+    }
+
+    private static Kind kindOf(String key) {
+        String suffix = key.substring(key.lastIndexOf('/') + 1);
+        return Kind.valueOf(suffix.toUpperCase(Locale.ROOT));
+    }
+
+    private static Path metaPath(Path data) {
+        return data.resolveSibling(data.getFileName() + META_SUFFIX);
+    }
+
+    private static FileTime lastModified(CachedMedia media) {
+        try {
+            return Files.getLastModifiedTime(media.path());
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    // Firestore id'leri [A-Za-z0-9] ama yine de dosya adına güvenli hale getir
+    private static String fileName(String key) {
+        return key.replaceAll("[^A-Za-z0-9_-]", "_");
+    }
+}
@@ -0,0 +1,17 @@
+package com.languagelearning.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Cache'te olmayan medya dosyalarının (ses/görsel) kaynağı.
+ * Varsayılan olarak uzak URL'den indirir; testlerde yerel bir dizin kullanılabilir.
+ */
+public interface MediaSource {
+
+    /**
+     * url'deki içeriği target dosyasına yazar ve içeriğin MIME tipini döndürür
+     * (bilinmiyorsa null).
+     */
+    String fetch(String url, Path target) throws IOException;
+}
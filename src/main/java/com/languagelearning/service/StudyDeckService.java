@@ -0,0 +1,451 @@
+package com.languagelearning.service;
+
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Dil başına hazır çalışma desteleri (yeni, zayıf, tekrar zamanı gelmiş, favori kelimeler
+ * ve önceden karıştırılmış quiz setleri). Desteler arka planda bellekteki kompakt kelime
+ * kayıtlarından üretilir ve atomik olarak değiştirilir; endpoint'ler sadece okur.
+ *
+ * - Periyodik tam senkronizasyon (decks.resync-interval-ms): dışarıdan yapılan değişiklikleri yakalar
+ * - Dakikalık tick (decks.tick-interval-ms): zamana bağlı "due" destesini ve quiz setlerini Firestore'a gitmeden yeniler
+ * - WordService mutasyonları: sadece etkilenen desteleri yerinde günceller
+ */
+@Service
+public class StudyDeckService {
+
+    public enum Deck {
+        NEW(20),
+        WEAK(20),
+        DUE(30),
+        FAVORITES(30);
+
+        private final int size;
+
+        Deck(int size) {
+            this.size = size;
+        }
+    }
+
+    static final List<String> COLLECTIONS = List.of("englishWords", "spanishWords");
+
+    private static final int QUIZ_SET_COUNT = 8;
+    private static final int QUIZ_SET_SIZE = 200;
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+    private static final int MAX_INTERVAL_DAYS = 60;
+
+    // Deste üretimi için gereken alanlar + cache'lenmiş JSON parçası
+    record WordEntry(String id, byte[] json, int correctCount, int incorrectCount, int studyCount,
+                     boolean favorite, long lastStudyMillis, String audioUrl, String imageUrl) {
+
+        long dueAt() {
+            return StudyDeckService.dueAt(correctCount, incorrectCount, lastStudyMillis);
+        }
+
+        boolean in(Deck deck, long now) {
+            return switch (deck) {
+                case NEW -> studyCount == 0;
+                case WEAK -> correctCount < 3;
+                case DUE -> isDue(studyCount, lastStudyMillis, dueAt(), now);
+                case FAVORITES -> favorite;
+            };
+        }
+    }
+
+    // Değişmez deste görüntüsü; yenilemede komple yenisiyle değiştirilir
+    record Decks(Map<Deck, String[]> decks, String[][] quizSets) {}
+
+    private static final class CollectionState {
+        volatile Map<String, WordEntry> entries = new ConcurrentHashMap<>();
+        volatile Decks decks;
+        final AtomicInteger quizCursor = new AtomicInteger();
+        // Tam senkronizasyon sırasında değişen id'ler; eski tarama sonucu bunları ezmemeli
+        final Set<String> touchedDuringResync = ConcurrentHashMap.newKeySet();
+        volatile boolean resyncing;
+        // Aynı koleksiyonda tek tarama; eşzamanlı çağıranlar devam edene katılır
+        final AtomicReference<CompletableFuture<Void>> resync = new AtomicReference<>();
+    }
+
+    private final Firestore firestore;
+    private final WordJsonCache wordJsonCache;
+    private final MediaCacheService mediaCacheService;
+    private final Map<String, CollectionState> states = new ConcurrentHashMap<>();
+
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "deck-refresh");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @Value("${decks.max-words:20000}")
+    private int maxWords;
+
+    @Autowired
+    public StudyDeckService(@Lazy Firestore firestore, WordJsonCache wordJsonCache,
+                            MediaCacheService mediaCacheService) {
+        this.firestore = firestore;
+        this.wordJsonCache = wordJsonCache;
+        this.mediaCacheService = mediaCacheService;
+        for (String collectionName : COLLECTIONS) {
+            states.put(collectionName, new CollectionState());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    public boolean isReady(String collectionName) {
+        return states.get(collectionName).decks != null;
+    }
+
+    // Hazır desteyi JSON dizisi olarak döndürür; ilk senkronizasyon bitmediyse null
+    public byte[] render(String collectionName, Deck deck) {
+        CollectionState state = states.get(collectionName);
+        Decks decks = state.decks;
+        if (decks == null) {
+            return null;
+        }
+        return toJson(state, decks.decks().get(deck), Integer.MAX_VALUE);
+    }
+
+    // Sıradaki hazır quiz setinden ilk count kelime
+    public byte[] quiz(String collectionName, int count) {
+        CollectionState state = states.get(collectionName);
+        Decks decks = state.decks;
+        if (decks == null || decks.quizSets().length == 0) {
+            return null;
+        }
+        String[] set = decks.quizSets()[Math.floorMod(state.quizCursor.getAndIncrement(), decks.quizSets().length)];
+        int limit = Math.min(Math.max(count, 0), set.length);
+
+        for (int i = 0; i < limit; i++) {
+            WordEntry entry = state.entries.get(set[i]);
+            if (entry != null) {
+                mediaCacheService.prefetch(collectionName, entry.id(), MediaCacheService.Kind.AUDIO, entry.audioUrl());
+                mediaCacheService.prefetch(collectionName, entry.id(), MediaCacheService.Kind.IMAGE, entry.imageUrl());
+            }
+        }
+        return toJson(state, set, limit);
+    }
+
+    // Desteler hazır değilken Firestore sonucunu DUE destesiyle aynı kurala göre süz ve sırala
+    public static <T extends DocumentSnapshot> List<T> selectDue(List<T> documents) {
+        long now = System.currentTimeMillis();
+        Map<T, Long> dueAt = new HashMap<>();
+        for (T doc : documents) {
+            int studyCount = intField(doc, "studyCount");
+            Date lastStudyDate = doc.getDate("lastStudyDate");
+            long lastStudyMillis = lastStudyDate != null ? lastStudyDate.getTime() : 0;
+            long due = dueAt(intField(doc, "correctCount"), intField(doc, "incorrectCount"), lastStudyMillis);
+            if (isDue(studyCount, lastStudyMillis, due, now)) {
+                dueAt.put(doc, due);
+            }
+        }
+        return dueAt.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue())
+                .limit(Deck.DUE.size)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    // Mutasyon sonrası güncel doküman elimizdeyse ekstra okuma yapmadan uygula
+    public void onWordChanged(String collectionName, DocumentSnapshot document) {
+        CollectionState state = states.get(collectionName);
+        if (!document.exists()) {
+            onWordDeleted(collectionName, document.getId());
+            return;
+        }
+        apply(state, document.getId(), toEntry(collectionName, document));
+    }
+
+    public void onWordDeleted(String collectionName, String wordId) {
+        apply(states.get(collectionName), wordId, null);
+    }
+
+    // Eklemede doküman snapshot'ı yok; okumayı istek thread'i dışında yap
+    public void refreshWordAsync(String collectionName, String wordId) {
+        refreshExecutor.execute(() -> {
+            try {
+                onWordChanged(collectionName, firestore.collection(collectionName).document(wordId).get().get());
+            } catch (Exception e) {
+                System.err.println("Deste güncellenemedi (" + collectionName + "/" + wordId + "): " + e.getMessage());
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${decks.resync-interval-ms:600000}",
+            initialDelayString = "${decks.initial-delay-ms:2000}")
+    public void resyncAll() {
+        for (String collectionName : COLLECTIONS) {
+            try {
+                resync(collectionName);
+            } catch (Exception e) {
+                System.err.println("Deste senkronizasyonu başarısız (" + collectionName + "): " + e.getMessage());
+            }
+        }
+    }
+
+    // Zamana bağlı desteler için: Firestore'a gitmeden bellekten yeniden hesapla
+    @Scheduled(fixedDelayString = "${decks.tick-interval-ms:60000}",
+            initialDelayString = "${decks.tick-interval-ms:60000}")
+    public void tick() {
+        for (CollectionState state : states.values()) {
+            synchronized (state) {
+                Decks current = state.decks;
+                if (current == null) {
+                    continue;
+                }
+                Map<Deck, String[]> decks = new EnumMap<>(current.decks());
+                decks.put(Deck.DUE, build(state.entries.values(), Deck.DUE, System.currentTimeMillis()));
+                state.decks = new Decks(decks, buildQuizSets(state.entries));
+            }
+        }
+    }
+
+    private void resync(String collectionName) throws Exception {
+        CollectionState state = states.get(collectionName);
+        CompletableFuture<Void> mine = new CompletableFuture<>();
+        CompletableFuture<Void> running = state.resync.compareAndExchange(null, mine);
+        if (running != null) {
+            // Devam eden tarama zaten güncel durumu getirecek; ikincisi touchedDuringResync'i silerdi
+            try {
+                running.get();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+            return;
+        }
+        try {
+            scan(collectionName, state);
+            mine.complete(null);
+        } catch (Exception | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            state.resync.set(null);
+        }
+    }
+
+    private void scan(String collectionName, CollectionState state) throws Exception {
+        long start = System.currentTimeMillis();
+
+        synchronized (state) {
+            state.touchedDuringResync.clear();
+            state.resyncing = true;
+        }
+
+        Map<String, WordEntry> scanned = new ConcurrentHashMap<>();
+        try {
+            List<QueryDocumentSnapshot> documents = firestore.collection(collectionName)
+                    .limit(maxWords).get().get().getDocuments();
+            for (QueryDocumentSnapshot doc : documents) {
+                scanned.put(doc.getId(), toEntry(collectionName, doc));
+            }
+        } catch (Exception | Error e) {
+            synchronized (state) {
+                state.resyncing = false;
+                state.touchedDuringResync.clear();
+            }
+            throw e;
+        }
+
+        // resyncing birleştirme ile aynı kilitte kapanır; arada gelen apply() kaybolmasın
+        synchronized (state) {
+            state.resyncing = false;
+            // Tarama sırasında mutasyona uğrayan kelimelerde bellekteki güncel hali koru
+            for (String id : state.touchedDuringResync) {
+                WordEntry current = state.entries.get(id);
+                if (current == null) {
+                    scanned.remove(id);
+                } else {
+                    scanned.put(id, current);
+                }
+            }
+            state.touchedDuringResync.clear();
+
+            state.entries = scanned;
+            state.decks = buildAll(scanned);
+        }
+
+        System.out.println("Desteler yenilendi: " + collectionName + " (" + scanned.size() + " kelime, "
+                + (System.currentTimeMillis() - start) + " ms)");
+    }
+
+    // Tek kelime değişikliği: sadece üyeliği veya sırası etkilenen desteleri yeniden hesapla
+    private void apply(CollectionState state, String wordId, WordEntry updated) {
+        synchronized (state) {
+            if (state.resyncing) {
+                state.touchedDuringResync.add(wordId);
+            }
+
+            WordEntry previous = updated == null ? state.entries.remove(wordId) : state.entries.put(wordId, updated);
+            Decks current = state.decks;
+            if (current == null) {
+                return;
+            }
+
+            long now = System.currentTimeMillis();
+            Map<Deck, String[]> decks = new EnumMap<>(current.decks());
+            boolean changed = false;
+            for (Deck deck : Deck.values()) {
+                boolean wasIn = previous != null && previous.in(deck, now);
+                boolean isIn = updated != null && updated.in(deck, now);
+                if (wasIn || isIn) {
+                    decks.put(deck, update(state, decks.get(deck), deck, wordId, isIn ? updated : null, now));
+                    changed = true;
+                }
+            }
+            // Quiz setleri id tutar; silinen kelimeler render sırasında atlanır
+            if (changed) {
+                state.decks = new Decks(decks, current.quizSets());
+            }
+        }
+    }
+
+    /*
+     * Desteyi yerinde günceller: kelimeyi çıkarır, hâlâ destedeyse sıralı konumuna yerleştirir;
+     * en fazla deck.size elemanla çalışır. Dolu bir desteden eleman eksildiğinde boşalan yere
+     * hangi kelimenin gireceği ancak tüm kayıtlara bakarak bilinebilir; yalnızca o durumda
+     * deste baştan hesaplanır.
+     */
+    private static String[] update(CollectionState state, String[] ids, Deck deck, String wordId,
+                                   WordEntry updated, long now) {
+        List<String> result = new ArrayList<>(ids.length + 1);
+        for (String id : ids) {
+            if (!id.equals(wordId)) {
+                result.add(id);
+            }
+        }
+        if (updated != null) {
+            Comparator<WordEntry> order = order(deck);
+            int position = 0;
+            while (position < result.size()) {
+                WordEntry other = state.entries.get(result.get(position));
+                if (other != null && order.compare(updated, other) < 0) {
+                    break;
+                }
+                position++;
+            }
+            result.add(position, wordId);
+            if (result.size() > deck.size) {
+                result.remove(result.size() - 1);
+            }
+        }
+        if (ids.length == deck.size && result.size() < deck.size) {
+            return build(state.entries.values(), deck, now);
+        }
+        return result.toArray(String[]::new);
+    }
+
+    private Decks buildAll(Map<String, WordEntry> entries) {
+        long now = System.currentTimeMillis();
+        Map<Deck, String[]> decks = new EnumMap<>(Deck.class);
+        for (Deck deck : Deck.values()) {
+            decks.put(deck, build(entries.values(), deck, now));
+        }
+        return new Decks(decks, buildQuizSets(entries));
+    }
+
+    private static Comparator<WordEntry> order(Deck deck) {
+        return switch (deck) {
+            // En zayıf kelimeler önce: net doğru sayısı düşük, çok çalışılmış ama öğrenilememiş
+            case WEAK -> Comparator.comparingInt((WordEntry e) -> e.correctCount() - e.incorrectCount())
+                    .thenComparing(Comparator.comparingInt(WordEntry::studyCount).reversed());
+            // En çok gecikmiş olan önce
+            case DUE -> Comparator.comparingLong(WordEntry::dueAt);
+            default -> Comparator.comparing(WordEntry::id);
+        };
+    }
+
+    private static String[] build(Collection<WordEntry> entries, Deck deck, long now) {
+        return entries.stream()
+                .filter(e -> e.in(deck, now))
+                .sorted(order(deck))
+                .limit(deck.size)
+                .map(WordEntry::id)
+                .toArray(String[]::new);
+    }
+
+    // Basit aralıklı tekrar: her net doğru cevap aralığı ikiye katlar
+    private static long dueAt(int correctCount, int incorrectCount, long lastStudyMillis) {
+        int streak = Math.max(0, Math.min(correctCount - incorrectCount, 6));
+        long intervalDays = Math.min(1L << streak, MAX_INTERVAL_DAYS);
+        return lastStudyMillis + intervalDays * DAY_MILLIS;
+    }
+
+    private static boolean isDue(int studyCount, long lastStudyMillis, long dueAt, long now) {
+        return studyCount > 0 && lastStudyMillis > 0 && dueAt <= now;
+    }
+
+    private static String[][] buildQuizSets(Map<String, WordEntry> entries) {
+        String[] ids = entries.keySet().toArray(String[]::new);
+        if (ids.length == 0) {
+            return new String[0][];
+        }
+        int size = Math.min(QUIZ_SET_SIZE, ids.length);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String[][] sets = new String[QUIZ_SET_COUNT][];
+        for (int s = 0; s < QUIZ_SET_COUNT; s++) {
+            // Kısmi Fisher-Yates: sadece ilk 'size' eleman karıştırılır
+            for (int i = 0; i < size; i++) {
+                int j = i + random.nextInt(ids.length - i);
+                String tmp = ids[i];
+                ids[i] = ids[j];
+                ids[j] = tmp;
+            }
+            sets[s] = Arrays.copyOf(ids, size);
+        }
+        return sets;
+    }
+
+    private byte[] toJson(CollectionState state, String[] ids, int limit) {
+        List<byte[]> fragments = new ArrayList<>(Math.min(ids.length, limit));
+        for (int i = 0; i < ids.length && fragments.size() < limit; i++) {
+            WordEntry entry = state.entries.get(ids[i]);
+            if (entry != null) {
+                fragments.add(entry.json());
+            }
+        }
+        return WordJsonCache.concat(fragments);
+    }
+
+    private WordEntry toEntry(String collectionName, DocumentSnapshot doc) {
+        Boolean favorite = doc.getBoolean("isFavorite");
+        Date lastStudyDate = doc.getDate("lastStudyDate");
+        return new WordEntry(
+                doc.getId(),
+                wordJsonCache.fragment(collectionName, doc),
+                intField(doc, "correctCount"),
+                intField(doc, "incorrectCount"),
+                intField(doc, "studyCount"),
+                favorite != null && favorite,
+                lastStudyDate != null ? lastStudyDate.getTime() : 0,
+                doc.getString("audioUrl"),
+                doc.getString("imageUrl"));
+    }
+
+    private static int intField(DocumentSnapshot doc, String field) {
+        Long value = doc.getLong(field);
+        return value != null ? value.intValue() : 0;
+    }
+}
@@ -0,0 +1,136 @@
+package com.languagelearning.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.languagelearning.model.Word;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Kelime başına önceden serileştirilmiş JSON (UTF-8) parçalarını tutar.
+ * Anahtar: koleksiyon + doküman id, geçerlilik: dokümanın updateTime değeri.
+ * Liste cevapları bu parçaların doğrudan birleştirilmesiyle oluşturulur.
+ */
+@Component
+public class WordJsonCache {
+
+    private static final byte[] EMPTY_ARRAY = {'[', ']'};
+
+    private final ObjectMapper objectMapper;
+    private final int maxEntries;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private record Entry(Timestamp updateTime, byte[] json) {}
+
+    // Desteler her koleksiyondan decks.max-words kelime tutar; tam senkronizasyon cache'i taşırmamalı
+    @Autowired
+    public WordJsonCache(ObjectMapper objectMapper, @Value("${decks.max-words:20000}") int maxWords) {
+        this.objectMapper = objectMapper;
+        this.maxEntries = maxWords * StudyDeckService.COLLECTIONS.size();
+    }
+
+    // Doküman değişmediyse cache'teki parçayı döndür, değiştiyse yeniden serileştir
+    public byte[] fragment(String collectionName, DocumentSnapshot doc) {
+        String key = key(collectionName, doc.getId());
+        Timestamp updateTime = doc.getUpdateTime();
+
+        Entry entry = entries.get(key);
+        if (entry != null && updateTime != null && updateTime.equals(entry.updateTime())) {
+            return entry.json();
+        }
+
+        Word word = doc.toObject(Word.class);
+        word.setId(doc.getId());
+        byte[] json = serialize(word);
+
+        if (updateTime != null) {
+            if (entries.size() >= maxEntries) {
+                // Basit sınır: taşarsa temizle, sıcak kelimeler hızla tekrar dolar
+                entries.clear();
+            }
+            entries.put(key, new Entry(updateTime, json));
+        }
+        return json;
+    }
+
+    public byte[] toJsonArray(String collectionName, List<? extends DocumentSnapshot> docs) {
+        List<byte[]> fragments = new ArrayList<>(docs.size());
+        for (DocumentSnapshot doc : docs) {
+            fragments.add(fragment(collectionName, doc));
+        }
+        return concat(fragments);
+    }
+
+    // Parçaları tek bir JSON dizisine kopyala: tek allocation, ara String yok
+    public static byte[] concat(List<byte[]> fragments) {
+        if (fragments.isEmpty()) {
+            return EMPTY_ARRAY.clone();
+        }
+
+        int length = 2 + fragments.size() - 1;
+        for (byte[] fragment : fragments) {
+            length += fragment.length;
+        }
+
+        byte[] out = new byte[length];
+        int pos = 0;
+        out[pos++] = '[';
+        for (int i = 0; i < fragments.size(); i++) {
+            if (i > 0) {
+                out[pos++] = ',';
+            }
+            byte[] fragment = fragments.get(i);
+            System.arraycopy(fragment, 0, out, pos, fragment.length);
+            pos += fragment.length;
+        }
+        out[pos] = ']';
+        return out;
+    }
+
+    // {"words":[...],"hasMore":..,"lastWordId":..} zarfı; kelime dizisi yeniden serileştirilmez
+    public byte[] toPage(byte[] wordsArray, boolean hasMore, String lastWordId) {
+        byte[] head = "{\"words\":".getBytes(StandardCharsets.UTF_8);
+        byte[] tail = (",\"hasMore\":" + hasMore + ",\"lastWordId\":" + serializeId(lastWordId) + "}")
+                .getBytes(StandardCharsets.UTF_8);
+
+        byte[] out = new byte[head.length + wordsArray.length + tail.length];
+        System.arraycopy(head, 0, out, 0, head.length);
+        System.arraycopy(wordsArray, 0, out, head.length, wordsArray.length);
+        System.arraycopy(tail, 0, out, head.length + wordsArray.length, tail.length);
+        return out;
+    }
+
+    public void invalidate(String collectionName, String wordId) {
+        entries.remove(key(collectionName, wordId));
+    }
+
+    private byte[] serialize(Word word) {
+        try {
+            return objectMapper.writeValueAsBytes(word);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Kelime JSON'a çevrilemedi: " + word.getId(), e);
+        }
+    }
+
+    private String serializeId(String wordId) {
+        try {
+            return objectMapper.writeValueAsString(wordId);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Kelime id'si JSON'a çevrilemedi: " + wordId, e);
+        }
+    }
+
+    private static String key(String collectionName, String wordId) {
+        return collectionName + "/" + Objects.requireNonNull(wordId);
+    }
+}
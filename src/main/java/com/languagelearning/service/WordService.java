@@ -5,7 +5,10 @@ import com.google.cloud.firestore.*;
 import com.languagelearning.model.Word;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import java.util.*;
 import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
@@ -14,11 +17,35 @@ import java.util.stream.Collectors;
 public class WordService {
 
     private final Firestore firestore;
+    private final WordJsonCache wordJsonCache;
+    private final MediaCacheService mediaCacheService;
+    private final StudyDeckService studyDeckService;
+    private final DuplicateIndex duplicateIndex;
+    private final CategoryClassifier categoryClassifier;
+    private final DistractorIndex distractorIndex;
+    private final LiveUpdateService liveUpdateService;
     private static final int PAGE_SIZE = 20; // Sayfa başına kelime sayısı
+    private static final int MAX_CHOICES = 6; // Çoktan seçmeli soruda en fazla şık sayısı
+    private static final long PENDING_WAIT_MS = 2000; // Eşzamanlı aynı eklemenin bitmesi için bekleme
+
+    // merge: tekrar eklenen kelimenin yeni alanları mevcut kelimeye eklenir, reject: 409 döner
+    @Value("${duplicates.policy:merge}")
+    private String duplicatePolicy;
 
     @Autowired
-    public WordService(Firestore firestore) {
+    public WordService(@Lazy Firestore firestore, WordJsonCache wordJsonCache,
+                       MediaCacheService mediaCacheService, StudyDeckService studyDeckService,
+                       DuplicateIndex duplicateIndex, CategoryClassifier categoryClassifier,
+                       DistractorIndex distractorIndex, LiveUpdateService liveUpdateService) {
         this.firestore = firestore;
+        this.wordJsonCache = wordJsonCache;
+        this.mediaCacheService = mediaCacheService;
+        this.studyDeckService = studyDeckService;
+        this.duplicateIndex = duplicateIndex;
+        this.categoryClassifier = categoryClassifier;
+        this.distractorIndex = distractorIndex;
+        this.liveUpdateService = liveUpdateService;
+        // Firestore @Lazy proxy olarak gelir; gerçek istemci ilk çağrıda oluşturulur
         System.out.println("WordService initialized with Firestore: " + (firestore != null));
     }
 
@@ -52,15 +79,16 @@ public class WordService {
         }
     }
 
-    // Pagination ile kelime getirme
-    public Map<String, Object> getWordsPaginated(String language, String lastWordId, int limit)
+    // Pagination ile kelime getirme; kelimeler cache'teki JSON parçalarından birleştirilir
+    public byte[] getWordsPaginatedJson(String language, String lastWordId, int limit)
             throws ExecutionException, InterruptedException {
         checkFirestore();
         String collectionName = language.equals("en") ? "englishWords" : "spanishWords";
 
+        int pageSize = Math.min(limit, PAGE_SIZE);
         Query query = firestore.collection(collectionName)
                 .orderBy(FieldPath.documentId())
-                .limit(Math.min(limit, PAGE_SIZE));
+                .limit(pageSize);
 
         if (lastWordId != null && !lastWordId.isEmpty()) {
             DocumentSnapshot lastDoc = firestore.collection(collectionName)
@@ -73,20 +101,9 @@ public class WordService {
         ApiFuture<QuerySnapshot> future = query.get();
         List<QueryDocumentSnapshot> documents = future.get().getDocuments();
 
-        List<Word> words = documents.stream()
-                .map(doc -> {
-                    Word word = doc.toObject(Word.class);
-                    word.setId(doc.getId());
-                    return word;
-                })
-                .collect(Collectors.toList());
-
-        Map<String, Object> result = new HashMap<>();
-        result.put("words", words);
-        result.put("hasMore", documents.size() == limit);
-        result.put("lastWordId", words.isEmpty() ? null : words.get(words.size() - 1).getId());
-
-        return result;
+        String newLastWordId = documents.isEmpty() ? null : documents.get(documents.size() - 1).getId();
+        return wordJsonCache.toPage(wordJsonCache.toJsonArray(collectionName, documents),
+                documents.size() == pageSize, newLastWordId);
     }
 
     // Migration fonksiyonu güncellendi
@@ -115,7 +132,7 @@ public class WordService {
                 updates.put("difficulty", "medium");
             }
             if (!data.containsKey("category")) {
-                updates.put("category", guessCategory(data.get("word").toString()));
+                updates.put("category", categoryClassifier.classify(language, data.get("word").toString()));
             }
             if (!data.containsKey("incorrectCount")) {
                 updates.put("incorrectCount", 0);
@@ -155,99 +172,156 @@ public class WordService {
         System.out.println("Migration completed for " + collectionName + ": " + documents.size() + " documents processed");
     }
 
-    private String guessCategory(String word) {
-        word = word.toLowerCase();
-        if (word.endsWith("ar") || word.endsWith("er") || word.endsWith("ir")) {
-            return "verb";
-        } else if (word.endsWith("mente")) {
-            return "adverb";
-        } else if (word.endsWith("ción") || word.endsWith("dad") || word.endsWith("ismo")) {
-            return "noun";
-        } else {
-            return "other";
+    /**
+     * Tüm koleksiyonu kural tablosuna göre yeniden sınıflandırır. overwrite=false ise sadece
+     * kategorisi boş veya "other" olan kelimeler değişir. Yazma işlemleri 500'lük batch'lerle yapılır.
+     */
+    public Map<String, Object> reclassify(String language, boolean overwrite)
+            throws ExecutionException, InterruptedException {
+        checkFirestore();
+        String collectionName = language.equals("en") ? "englishWords" : "spanishWords";
+
+        List<QueryDocumentSnapshot> documents = firestore.collection(collectionName)
+                .select("word", "category")
+                .get().get().getDocuments();
+
+        List<String> words = new ArrayList<>(documents.size());
+        for (QueryDocumentSnapshot doc : documents) {
+            words.add(doc.getString("word"));
+        }
+        long start = System.currentTimeMillis();
+        String[] categories = categoryClassifier.classifyAll(language, words);
+        long classifyMillis = System.currentTimeMillis() - start;
+
+        WriteBatch batch = firestore.batch();
+        int batchCount = 0;
+        List<String> changedIds = new ArrayList<>();
+
+        for (int i = 0; i < documents.size(); i++) {
+            QueryDocumentSnapshot doc = documents.get(i);
+            String current = doc.getString("category");
+            String guessed = categories[i];
+            boolean replaceable = overwrite || current == null || current.isBlank()
+                    || current.equals(CategoryClassifier.DEFAULT_CATEGORY);
+            if (!replaceable || guessed.equals(current)
+                    || (!overwrite && guessed.equals(CategoryClassifier.DEFAULT_CATEGORY))) {
+                continue;
+            }
+
+            batch.update(doc.getReference(), "category", guessed);
+            changedIds.add(doc.getId());
+            batchCount++;
+
+            if (batchCount >= 500) {
+                batch.commit().get();
+                batch = firestore.batch();
+                batchCount = 0;
+            }
         }
+
+        if (batchCount > 0) {
+            batch.commit().get();
+        }
+
+        for (String id : changedIds) {
+            wordJsonCache.invalidate(collectionName, id);
+            studyDeckService.refreshWordAsync(collectionName, id);
+        }
+
+        System.out.println("Reclassification completed for " + collectionName + ": " + documents.size()
+                + " words classified in " + classifyMillis + " ms, " + changedIds.size() + " updated");
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("scanned", documents.size());
+        result.put("updated", changedIds.size());
+        result.put("classifyMillis", classifyMillis);
+        return result;
     }
 
-    // Optimized getAllWords - limit ile
-    public List<Word> getAllWords(String language) throws ExecutionException, InterruptedException {
+    // Tüm kelimeler (en fazla 100), cache'teki JSON parçalarından birleştirilir
+    public byte[] getAllWordsJson(String language) throws ExecutionException, InterruptedException {
         checkFirestore();
         String collectionName = language.equals("en") ? "englishWords" : "spanishWords";
 
+        return wordJsonCache.toJsonArray(collectionName, allWordsDocuments(collectionName));
+    }
+
+    private List<QueryDocumentSnapshot> allWordsDocuments(String collectionName)
+            throws ExecutionException, InterruptedException {
         // Tüm kelimeleri çekme, maksimum 100 kelime
         Query query = firestore.collection(collectionName).limit(100);
         ApiFuture<QuerySnapshot> future = query.get();
-        List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-
-        return documents.stream()
-                .map(doc -> {
-                    Word word = doc.toObject(Word.class);
-                    word.setId(doc.getId());
-                    return word;
-                })
-                .collect(Collectors.toList());
+        return future.get().getDocuments();
     }
 
-    // Lazy loading için yeni method
-    public List<Word> getWordsLazy(String language, int offset, int limit)
+    // Lazy loading
+    public byte[] getWordsLazyJson(String language, int offset, int limit)
             throws ExecutionException, InterruptedException {
         checkFirestore();
         String collectionName = language.equals("en") ? "englishWords" : "spanishWords";
 
+        return wordJsonCache.toJsonArray(collectionName, lazyDocuments(collectionName, offset, limit));
+    }
+
+    private List<QueryDocumentSnapshot> lazyDocuments(String collectionName, int offset, int limit)
+            throws ExecutionException, InterruptedException {
         Query query = firestore.collection(collectionName)
                 .orderBy("word")
                 .offset(offset)
                 .limit(Math.min(limit, PAGE_SIZE));
 
         ApiFuture<QuerySnapshot> future = query.get();
-        List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-
-        return documents.stream()
-                .map(doc -> {
-                    Word word = doc.toObject(Word.class);
-                    word.setId(doc.getId());
-                    return word;
-                })
-                .collect(Collectors.toList());
+        return future.get().getDocuments();
     }
 
-    public List<Word> getUnknownWords(String language) throws ExecutionException, InterruptedException {
+    public byte[] getUnknownWordsJson(String language) throws ExecutionException, InterruptedException {
         checkFirestore();
         String collectionName = language.equals("en") ? "englishWords" : "spanishWords";
 
+        // Hazır deste varsa Firestore'a gitme
+        byte[] deck = studyDeckService.render(collectionName, StudyDeckService.Deck.WEAK);
+        if (deck != null) {
+            return deck;
+        }
+        return wordJsonCache.toJsonArray(collectionName, unknownDocuments(collectionName));
+    }
+
+    private List<QueryDocumentSnapshot> unknownDocuments(String collectionName)
+            throws ExecutionException, InterruptedException {
         // Limit ekle performans için
         Query query = firestore.collection(collectionName).limit(50);
         ApiFuture<QuerySnapshot> future = query.get();
         List<QueryDocumentSnapshot> documents = future.get().getDocuments();
 
+        // Filtreleme için tüm dokümanı Word'e çevirmeye gerek yok
         return documents.stream()
-                .map(doc -> {
-                    Word word = doc.toObject(Word.class);
-                    word.setId(doc.getId());
-                    return word;
+                .filter(doc -> {
+                    Long correctCount = doc.getLong("correctCount");
+                    return correctCount == null || correctCount < 3;
                 })
-                .filter(word -> word.getCorrectCount() < 3)
                 .limit(20) // Maksimum 20 kelime döndür
                 .collect(Collectors.toList());
     }
 
-    public List<Word> getNewWords(String language) throws ExecutionException, InterruptedException {
+    public byte[] getNewWordsJson(String language) throws ExecutionException, InterruptedException {
         checkFirestore();
         String collectionName = language.equals("en") ? "englishWords" : "spanishWords";
 
+        byte[] deck = studyDeckService.render(collectionName, StudyDeckService.Deck.NEW);
+        if (deck != null) {
+            return deck;
+        }
+        return wordJsonCache.toJsonArray(collectionName, newDocuments(collectionName));
+    }
+
+    private List<QueryDocumentSnapshot> newDocuments(String collectionName)
+            throws ExecutionException, InterruptedException {
         Query query = firestore.collection(collectionName)
                 .whereEqualTo("studyCount", 0)
                 .limit(20); // Direkt Firestore'da limit
 
         ApiFuture<QuerySnapshot> future = query.get();
-        List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-
-        return documents.stream()
-                .map(doc -> {
-                    Word word = doc.toObject(Word.class);
-                    word.setId(doc.getId());
-                    return word;
-                })
-                .collect(Collectors.toList());
+        return future.get().getDocuments();
     }
 
     public Word updateWordProgress(String language, String wordId, boolean isCorrect)
@@ -269,13 +343,33 @@ public class WordService {
 
         ApiFuture<WriteResult> future = docRef.update(updates);
         future.get();
+        wordJsonCache.invalidate(collectionName, wordId);
 
         DocumentSnapshot document = docRef.get().get();
+        studyDeckService.onWordChanged(collectionName, document);
         Word word = document.toObject(Word.class);
         word.setId(document.getId());
+
+        // Doğru cevap kelimeyi bir üst gruba (unknown -> learning -> learned) taşıyabilir
+        Map<String, Long> delta = new HashMap<>();
+        String before = progressBucket(word.getCorrectCount() - (isCorrect ? 1 : 0));
+        String after = progressBucket(word.getCorrectCount());
+        if (!before.equals(after)) {
+            delta.put(before, -1L);
+            delta.put(after, 1L);
+        }
+        liveUpdateService.publish(collectionName, "progress", wordId, word, delta);
         return word;
     }
 
+    // getStatistics ile aynı gruplama
+    private static String progressBucket(long correctCount) {
+        if (correctCount >= 5) {
+            return "learned";
+        }
+        return correctCount > 0 ? "learning" : "unknown";
+    }
+
     public Word addWord(String language, Word word) throws ExecutionException, InterruptedException {
         checkFirestore();
         String collectionName = language.equals("en") ? "englishWords" : "spanishWords";
@@ -289,20 +383,228 @@ public class WordService {
         if (word.getDifficulty() == null) {
             word.setDifficulty("medium");
         }
-        if (word.getCategory() == null) {
-            word.setCategory("other");
+        // Formdan varsayılan "other" gelir; bu durumda kural tablosundan tahmin et
+        if (word.getCategory() == null || word.getCategory().isBlank()
+                || word.getCategory().equals(CategoryClassifier.DEFAULT_CATEGORY)) {
+            word.setCategory(categoryClassifier.classify(language, word.getWord()));
         }
         if (word.getTags() == null || word.getTags().isEmpty()) {
             word.setTags(Arrays.asList("general"));
         }
 
-        ApiFuture<DocumentReference> future = firestore.collection(collectionName).add(word);
-        DocumentReference docRef = future.get();
-        word.setId(docRef.getId());
+        // Çoğu eklemede bellekteki Bloom filtresi yeterli, Firestore'a sorgu atılmaz
+        String key = DuplicateIndex.normalizedKey(word.getWord(), word.getTranslation());
+        String existingId = duplicateIndex.reserve(collectionName, key);
+        if (DuplicateIndex.PENDING.equals(existingId)) {
+            // Aynı kelime eşzamanlı ekleniyor (çift gönderim): kazanan eklemeyi bekle, ona birleştir
+            existingId = duplicateIndex.awaitCommit(collectionName, key, PENDING_WAIT_MS);
+            if (existingId == null) {
+                existingId = duplicateIndex.reserve(collectionName, key);
+            }
+            if (DuplicateIndex.PENDING.equals(existingId)) {
+                throw new DuplicateWordException(word.getWord(), null);
+            }
+        }
+        if (existingId != null) {
+            if ("merge".equals(duplicatePolicy)) {
+                Word merged = mergeDuplicate(collectionName, existingId, word);
+                if (merged != null) {
+                    return merged;
+                }
+            } else if (firestore.collection(collectionName).document(existingId).get().get().exists()) {
+                throw new DuplicateWordException(word.getWord(), existingId);
+            }
+            // Index eskimiş (kelime silinmiş): normal eklemeye devam et
+            duplicateIndex.remove(collectionName, existingId);
+            if (duplicateIndex.reserve(collectionName, key) != null) {
+                throw new DuplicateWordException(word.getWord(), null);
+            }
+        }
+
+        try {
+            ApiFuture<DocumentReference> future = firestore.collection(collectionName).add(word);
+            DocumentReference docRef = future.get();
+            word.setId(docRef.getId());
+            duplicateIndex.commit(collectionName, key, docRef.getId());
+            distractorIndex.put(collectionName, docRef.getId(), word.getWord(), word.getTranslation());
+        } catch (ExecutionException | InterruptedException | RuntimeException e) {
+            duplicateIndex.release(collectionName, key);
+            throw e;
+        }
+        studyDeckService.refreshWordAsync(collectionName, word.getId());
+        liveUpdateService.publish(collectionName, "added", word.getId(), word,
+                Map.of("total", 1L, "unknown", 1L));
 
         return word;
     }
 
+    // Mevcut kelimede boş olan alanları yeni gelenle doldurur, etiketleri birleştirir
+    private Word mergeDuplicate(String collectionName, String existingId, Word incoming)
+            throws ExecutionException, InterruptedException {
+        DocumentReference docRef = firestore.collection(collectionName).document(existingId);
+        DocumentSnapshot document = docRef.get().get();
+        if (!document.exists()) {
+            return null;
+        }
+
+        Map<String, Object> updates = new HashMap<>();
+        fillIfEmpty(document, updates, "example", incoming.getExample());
+        fillIfEmpty(document, updates, "pronunciation", incoming.getPronunciation());
+        fillIfEmpty(document, updates, "imageUrl", incoming.getImageUrl());
+        fillIfEmpty(document, updates, "audioUrl", incoming.getAudioUrl());
+        String category = document.getString("category");
+        if ((category == null || category.equals("other")) && incoming.getCategory() != null
+                && !incoming.getCategory().equals("other")) {
+            updates.put("category", incoming.getCategory());
+        }
+
+        Set<String> tags = new LinkedHashSet<>();
+        Object existingTags = document.get("tags");
+        if (existingTags instanceof List<?> list) {
+            list.forEach(t -> tags.add(String.valueOf(t)));
+        }
+        int before = tags.size();
+        tags.addAll(incoming.getTags());
+        if (tags.size() != before) {
+            updates.put("tags", new ArrayList<>(tags));
+        }
+
+        if (!updates.isEmpty()) {
+            docRef.update(updates).get();
+            wordJsonCache.invalidate(collectionName, existingId);
+            document = docRef.get().get();
+            studyDeckService.onWordChanged(collectionName, document);
+        }
+        System.out.println("Duplicate kelime birleştirildi: " + incoming.getWord() + " -> " + existingId);
+
+        Word word = document.toObject(Word.class);
+        word.setId(document.getId());
+        return word;
+    }
+
+    private static void fillIfEmpty(DocumentSnapshot document, Map<String, Object> updates,
+                                    String field, String value) {
+        String current = document.getString(field);
+        if ((current == null || current.isBlank()) && value != null && !value.isBlank()) {
+            updates.put(field, value);
+        }
+    }
+
+    /**
+     * Mevcut koleksiyondaki kopyaları bulur: her grupta en çok çalışılmış kelime kalır,
+     * ilerleme sayaçları, favori ve etiketler ona aktarılır, diğerleri silinir.
+     */
+    public Map<String, Object> deduplicate(String language, boolean dryRun)
+            throws ExecutionException, InterruptedException {
+        checkFirestore();
+        String collectionName = language.equals("en") ? "englishWords" : "spanishWords";
+
+        List<QueryDocumentSnapshot> documents = firestore.collection(collectionName).get().get().getDocuments();
+        Map<String, List<QueryDocumentSnapshot>> groups = new HashMap<>();
+        for (QueryDocumentSnapshot doc : documents) {
+            String key = DuplicateIndex.normalizedKey(doc.getString("word"), doc.getString("translation"));
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(doc);
+        }
+
+        WriteBatch batch = firestore.batch();
+        int batchCount = 0;
+        int duplicateGroups = 0;
+        List<String> deletedIds = new ArrayList<>();
+        List<String> keptIds = new ArrayList<>();
+
+        for (List<QueryDocumentSnapshot> group : groups.values()) {
+            if (group.size() < 2) {
+                continue;
+            }
+            duplicateGroups++;
+            group.sort(Comparator
+                    .comparingLong((QueryDocumentSnapshot d) -> longField(d, "studyCount")).reversed()
+                    .thenComparing(QueryDocumentSnapshot::getId));
+            QueryDocumentSnapshot keeper = group.get(0);
+
+            long correct = 0;
+            long incorrect = 0;
+            long studies = 0;
+            boolean favorite = false;
+            Set<String> tags = new LinkedHashSet<>();
+            for (QueryDocumentSnapshot doc : group) {
+                correct += longField(doc, "correctCount");
+                incorrect += longField(doc, "incorrectCount");
+                studies += longField(doc, "studyCount");
+                favorite |= Boolean.TRUE.equals(doc.getBoolean("isFavorite"));
+                if (doc.get("tags") instanceof List<?> list) {
+                    list.forEach(t -> tags.add(String.valueOf(t)));
+                }
+            }
+            keptIds.add(keeper.getId());
+            if (dryRun) {
+                group.stream().skip(1).forEach(d -> deletedIds.add(d.getId()));
+                continue;
+            }
+
+            Map<String, Object> updates = new HashMap<>();
+            updates.put("correctCount", correct);
+            updates.put("incorrectCount", incorrect);
+            updates.put("studyCount", studies);
+            updates.put("isFavorite", favorite);
+            updates.put("tags", new ArrayList<>(tags));
+            // Firestore batch'i en fazla 500 yazma kabul eder; büyük gruplar batch'ler arasında bölünür.
+            // Kalan kelime önce güncellenir, böylece sayaçlar kopyalar silinmeden aktarılmış olur
+            batch.update(keeper.getReference(), updates);
+            batchCount++;
+            if (batchCount >= 500) {
+                batch.commit().get();
+                batch = firestore.batch();
+                batchCount = 0;
+            }
+
+            for (QueryDocumentSnapshot doc : group.subList(1, group.size())) {
+                batch.delete(doc.getReference());
+                deletedIds.add(doc.getId());
+                batchCount++;
+                if (batchCount >= 500) {
+                    batch.commit().get();
+                    batch = firestore.batch();
+                    batchCount = 0;
+                }
+            }
+        }
+
+        if (batchCount > 0) {
+            batch.commit().get();
+        }
+
+        if (!dryRun) {
+            for (String id : deletedIds) {
+                wordJsonCache.invalidate(collectionName, id);
+                mediaCacheService.evict(collectionName, id);
+                studyDeckService.onWordDeleted(collectionName, id);
+            }
+            for (String id : keptIds) {
+                wordJsonCache.invalidate(collectionName, id);
+                studyDeckService.refreshWordAsync(collectionName, id);
+            }
+            duplicateIndex.invalidate(collectionName);
+            distractorIndex.invalidate(collectionName);
+        }
+
+        System.out.println("Deduplication " + (dryRun ? "(dry run) " : "") + "for " + collectionName + ": "
+                + duplicateGroups + " groups, " + deletedIds.size() + " duplicates");
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("scanned", documents.size());
+        result.put("duplicateGroups", duplicateGroups);
+        result.put("removed", deletedIds.size());
+        result.put("removedIds", deletedIds);
+        result.put("dryRun", dryRun);
+        return result;
+    }
+
+    private static long longField(DocumentSnapshot doc, String field) {
+        Long value = doc.getLong(field);
+        return value != null ? value : 0;
+    }
+
     public Word updateWord(String language, String wordId, Word word)
             throws ExecutionException, InterruptedException {
         checkFirestore();
@@ -321,8 +623,12 @@ public class WordService {
 
         ApiFuture<WriteResult> future = docRef.update(updates);
         future.get();
+        wordJsonCache.invalidate(collectionName, wordId);
+        duplicateIndex.update(collectionName, wordId, word.getWord(), word.getTranslation());
+        distractorIndex.put(collectionName, wordId, word.getWord(), word.getTranslation());
 
         DocumentSnapshot document = docRef.get().get();
+        studyDeckService.onWordChanged(collectionName, document);
         Word updatedWord = document.toObject(Word.class);
         updatedWord.setId(document.getId());
         return updatedWord;
@@ -334,8 +640,41 @@ public class WordService {
         String collectionName = language.equals("en") ? "englishWords" : "spanishWords";
 
         DocumentReference docRef = firestore.collection(collectionName).document(wordId);
+
+        // İstatistik farkı için silinen kelimenin durumu gerekir; dinleyen yoksa okunmaz
+        Map<String, Long> delta = null;
+        if (liveUpdateService.hasSubscribers(collectionName)) {
+            DocumentSnapshot existing = docRef.get(FieldMask.of("correctCount", "isFavorite")).get();
+            if (existing.exists()) {
+                delta = new HashMap<>();
+                delta.put("total", -1L);
+                delta.put(progressBucket(longField(existing, "correctCount")), -1L);
+                if (Boolean.TRUE.equals(existing.getBoolean("isFavorite"))) {
+                    delta.put("favorites", -1L);
+                }
+            }
+        }
+
         ApiFuture<WriteResult> future = docRef.delete();
         future.get();
+        wordJsonCache.invalidate(collectionName, wordId);
+        mediaCacheService.evict(collectionName, wordId);
+        studyDeckService.onWordDeleted(collectionName, wordId);
+        duplicateIndex.remove(collectionName, wordId);
+        distractorIndex.remove(collectionName, wordId);
+        if (delta != null) {
+            liveUpdateService.publish(collectionName, "deleted", wordId, null, delta);
+        }
+    }
+
+    // Medya endpoint'i için sadece ilgili URL alanını oku
+    public String getMediaUrl(String language, String wordId, MediaCacheService.Kind kind)
+            throws ExecutionException, InterruptedException {
+        checkFirestore();
+        String collectionName = language.equals("en") ? "englishWords" : "spanishWords";
+
+        DocumentSnapshot document = firestore.collection(collectionName).document(wordId).get().get();
+        return document.exists() ? document.getString(kind.field()) : null;
     }
 
     public Word toggleFavorite(String language, String wordId)
@@ -354,40 +693,85 @@ public class WordService {
 
         ApiFuture<WriteResult> future = docRef.update(updates);
         future.get();
+        wordJsonCache.invalidate(collectionName, wordId);
 
         document = docRef.get().get();
+        studyDeckService.onWordChanged(collectionName, document);
         Word word = document.toObject(Word.class);
         word.setId(document.getId());
+        liveUpdateService.publish(collectionName, "favorite", wordId, word,
+                Map.of("favorites", word.isFavorite() ? 1L : -1L));
         return word;
     }
 
-    public List<Word> getFavoriteWords(String language)
+    public byte[] getFavoriteWordsJson(String language)
             throws ExecutionException, InterruptedException {
         checkFirestore();
         String collectionName = language.equals("en") ? "englishWords" : "spanishWords";
 
+        byte[] deck = studyDeckService.render(collectionName, StudyDeckService.Deck.FAVORITES);
+        if (deck != null) {
+            return deck;
+        }
+        return wordJsonCache.toJsonArray(collectionName, favoriteDocuments(collectionName));
+    }
+
+    private List<QueryDocumentSnapshot> favoriteDocuments(String collectionName)
+            throws ExecutionException, InterruptedException {
         Query query = firestore.collection(collectionName)
                 .whereEqualTo("isFavorite", true)
                 .limit(30); // Limit ekle
 
         ApiFuture<QuerySnapshot> future = query.get();
-        List<QueryDocumentSnapshot> documents = future.get().getDocuments();
+        return future.get().getDocuments();
+    }
 
-        return documents.stream()
-                .map(doc -> {
-                    Word word = doc.toObject(Word.class);
-                    word.setId(doc.getId());
-                    return word;
-                })
-                .collect(Collectors.toList());
+    public byte[] getQuizWordsJson(String language, int count)
+            throws ExecutionException, InterruptedException {
+        checkFirestore();
+        String collectionName = language.equals("en") ? "englishWords" : "spanishWords";
+
+        byte[] quiz = studyDeckService.quiz(collectionName, count);
+        if (quiz != null) {
+            return quiz;
+        }
+        return wordJsonCache.toJsonArray(collectionName, quizDocuments(collectionName, count));
     }
 
-    public List<Word> getQuizWords(String language, int count)
+    // Şıklar bellekteki index'ten üretilir; soru başına Firestore okuması yapılmaz
+    public List<Map<String, Object>> getMultipleChoiceQuiz(String language, int count, int choices)
             throws ExecutionException, InterruptedException {
-        // Rastgele kelimeler için optimizasyon
         checkFirestore();
         String collectionName = language.equals("en") ? "englishWords" : "spanishWords";
 
+        return distractorIndex.multipleChoice(collectionName, Math.min(count, PAGE_SIZE),
+                Math.min(Math.max(choices, 2), MAX_CHOICES));
+    }
+
+    // Tekrar zamanı gelmiş kelimeler; deste henüz hazır değilse Firestore'dan süzülür
+    public byte[] getDueWordsJson(String language) throws ExecutionException, InterruptedException {
+        checkFirestore();
+        String collectionName = language.equals("en") ? "englishWords" : "spanishWords";
+
+        byte[] deck = studyDeckService.render(collectionName, StudyDeckService.Deck.DUE);
+        if (deck != null) {
+            return deck;
+        }
+        return wordJsonCache.toJsonArray(collectionName, dueDocuments(collectionName));
+    }
+
+    private List<QueryDocumentSnapshot> dueDocuments(String collectionName)
+            throws ExecutionException, InterruptedException {
+        // Tekrar zamanı bellekte hesaplanır; çalışılmış kelimelerden bir örneklem yeterli
+        Query query = firestore.collection(collectionName)
+                .whereGreaterThan("studyCount", 0)
+                .limit(200);
+        ApiFuture<QuerySnapshot> future = query.get();
+        return StudyDeckService.selectDue(future.get().getDocuments());
+    }
+
+    private List<QueryDocumentSnapshot> quizDocuments(String collectionName, int count)
+            throws ExecutionException, InterruptedException {
         // Önce toplam kelime sayısını al
         Query countQuery = firestore.collection(collectionName).limit(200);
         ApiFuture<QuerySnapshot> future = countQuery.get();
@@ -399,14 +783,18 @@ public class WordService {
         // Şimdi güvenle shuffle yapabiliriz
         Collections.shuffle(mutableDocs);
 
-        return mutableDocs.stream()
-                .limit(count)
-                .map(doc -> {
-                    Word word = doc.toObject(Word.class);
-                    word.setId(doc.getId());
-                    return word;
-                })
-                .collect(Collectors.toList());
+        List<QueryDocumentSnapshot> quizDocs = mutableDocs.subList(0, Math.min(Math.max(count, 0), mutableDocs.size()));
+
+        // Kullanıcı ilk soruyu cevaplarken sonraki kartların ses/görselleri hazırlanır
+        mediaCacheService.prefetch(collectionName, quizDocs);
+        return quizDocs;
+    }
+
+    // Dashboard istatistik farkları ve kelime olayları için SSE aboneliği
+    public SseEmitter subscribeLiveUpdates(String language) {
+        String collectionName = language.equals("en") ? "englishWords" : "spanishWords";
+
+        return liveUpdateService.subscribe(collectionName);
     }
 
     public Map<String, Object> getStatistics(String language)
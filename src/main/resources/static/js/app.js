@@ -12,6 +12,7 @@ let hasMoreWords = true;
 let currentOffset = 0;
 let lastWordId = null;
 let viewMode = 'table';
+let liveUpdates = null;
 const PAGE_SIZE = 20;
 
 // API Base URL
@@ -32,11 +33,13 @@ document.addEventListener('DOMContentLoaded', function() {
             currentLanguage = e.target.value;
             resetPagination();
             loadDashboardData();
+            connectLiveUpdates();
         });
     }
 
     // Load initial data
     loadDashboardData();
+    connectLiveUpdates();
 
     // Setup form submission
     const addWordForm = document.getElementById('addWordForm');
@@ -227,6 +230,78 @@ async function loadDashboardData() {
     }
 }
 
+// Live Updates (SSE): istatistikler bir kez çekilir, sonra sunucudan gelen farklarla güncellenir
+const STAT_ELEMENTS = {
+    learned: 'learnedCount',
+    learning: 'learningCount',
+    unknown: 'unknownCount',
+    total: 'totalCount'
+};
+
+function connectLiveUpdates() {
+    if (liveUpdates) {
+        liveUpdates.close();
+        liveUpdates = null;
+    }
+    if (!window.EventSource) return;
+
+    const source = new EventSource(`${API_BASE_URL}/words/${currentLanguage}/events`);
+    let opened = false;
+
+    source.addEventListener('open', () => {
+        // Yeniden bağlanınca kaçırılan farklar için bir kez tazele
+        if (opened) loadDashboardData();
+        opened = true;
+    });
+    source.addEventListener('batch', (e) => applyLiveBatch(JSON.parse(e.data)));
+    source.addEventListener('error', () => {
+        console.warn('Live updates disconnected, browser will retry');
+    });
+
+    liveUpdates = source;
+}
+
+function refreshStatsIfOffline() {
+    if (!liveUpdates || liveUpdates.readyState !== EventSource.OPEN) {
+        loadDashboardData();
+    }
+}
+
+function applyLiveBatch(batch) {
+    Object.entries(batch.stats || {}).forEach(([field, delta]) => {
+        const element = document.getElementById(STAT_ELEMENTS[field]);
+        if (!element) return;
+        const current = parseInt(element.textContent, 10);
+        if (!isNaN(current)) {
+            element.textContent = Math.max(0, current + delta);
+        }
+    });
+
+    let changed = false;
+    (batch.words || []).forEach(event => {
+        const index = allWords.findIndex(w => w.id === event.id);
+        if (index === -1) return;
+        if (event.type === 'deleted') {
+            allWords.splice(index, 1);
+        } else if (event.word) {
+            allWords[index] = { ...event.word, id: event.id };
+        }
+        changed = true;
+    });
+
+    if (changed) {
+        displayedWords = [...allWords];
+        const activeSection = document.querySelector('.content-section[style*="block"]');
+        if (activeSection && activeSection.id === 'all-words') {
+            if (viewMode === 'table') {
+                displayWordsTable(displayedWords);
+            } else {
+                displayWordsCards(displayedWords);
+            }
+        }
+    }
+}
+
 // Animate Counter
 function animateCounter(elementId, targetValue) {
     const element = document.getElementById(elementId);
@@ -467,7 +542,7 @@ function createWordCard(word) {
                 </button>
             </div>
             ${word.imageUrl ? `
-                <img src="${escapeHtml(word.imageUrl)}" 
+                <img src="${mediaUrl(word, 'image')}" 
                      class="card-img-top" 
                      style="height: 150px; object-fit: cover;"
                      loading="lazy"
@@ -713,7 +788,7 @@ function loadQuizQuestion() {
             ${currentWord.word}
             ${currentWord.imageUrl ? `
                 <div class="mt-3">
-                    <img src="${currentWord.imageUrl}" 
+                    <img src="${mediaUrl(currentWord, 'image')}" 
                          class="img-fluid rounded" 
                          style="max-height: 200px;"
                          loading="lazy"
@@ -930,10 +1005,20 @@ function playWordAudio(word) {
     }
 }
 
+// Word media is served through the backend cache (supports Range for seeking)
+function mediaUrl(word, kind) {
+    return `${API_BASE_URL}/media/${currentLanguage}/${word.id}/${kind}`;
+}
+
 function playAudio() {
-    if (currentWord) {
-        playWordAudio(currentWord.word);
+    if (!currentWord) return;
+
+    if (currentWord.audioUrl) {
+        const audio = new Audio(mediaUrl(currentWord, 'audio'));
+        audio.play().catch(() => playWordAudio(currentWord.word));
+        return;
     }
+    playWordAudio(currentWord.word);
 }
 
 function playSuccessSound() {
@@ -1065,7 +1150,7 @@ async function deleteWord(wordId) {
             }
 
             // Update dashboard stats
-            loadDashboardData();
+            refreshStatsIfOffline();
         } else {
             showNotification('Silme işlemi başarısız!', 'error');
         }
@@ -1142,7 +1227,7 @@ async function updateWordProgress(wordId, isCorrect) {
             }
 
             // Update dashboard stats
-            loadDashboardData();
+            refreshStatsIfOffline();
         }
     } catch (error) {
         console.error('Error updating progress:', error);